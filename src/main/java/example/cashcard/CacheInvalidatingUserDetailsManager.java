@@ -0,0 +1,57 @@
+package example.cashcard;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.provisioning.UserDetailsManager;
+
+// Repassa tudo para o UserDetailsManager real e limpa o AuthenticationCache sempre que a senha ou os papéis de um usuário mudam.
+class CacheInvalidatingUserDetailsManager implements UserDetailsManager {
+  private final UserDetailsManager delegate;
+  private final AuthenticationCache cache;
+
+  CacheInvalidatingUserDetailsManager(UserDetailsManager delegate, AuthenticationCache cache) {
+    this.delegate = delegate;
+    this.cache = cache;
+  }
+
+  @Override
+  public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    return delegate.loadUserByUsername(username);
+  }
+
+  @Override
+  public void createUser(UserDetails user) {
+    delegate.createUser(user);
+    cache.invalidate(user.getUsername());
+  }
+
+  @Override
+  public void updateUser(UserDetails user) {
+    delegate.updateUser(user);
+    cache.invalidate(user.getUsername());
+  }
+
+  @Override
+  public void deleteUser(String username) {
+    delegate.deleteUser(username);
+    cache.invalidate(username);
+  }
+
+  @Override
+  public void changePassword(String oldPassword, String newPassword) {
+    delegate.changePassword(oldPassword, newPassword);
+    Authentication current = SecurityContextHolder.getContext().getAuthentication();
+    if (current != null) {
+      cache.invalidate(current.getName());
+    } else {
+      cache.invalidateAll();
+    }
+  }
+
+  @Override
+  public boolean userExists(String username) {
+    return delegate.userExists(username);
+  }
+}
@@ -0,0 +1,41 @@
+package example.cashcard;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+// Fica na frente do DaoAuthenticationProvider: credenciais já verificadas não passam de novo pelo BCrypt.
+// Senhas erradas nunca batem com o resumo guardado, então sempre caem no provider real e são rejeitadas.
+class CachingAuthenticationProvider implements AuthenticationProvider {
+  private final AuthenticationProvider delegate;
+  private final AuthenticationCache cache;
+
+  CachingAuthenticationProvider(AuthenticationProvider delegate, AuthenticationCache cache) {
+    this.delegate = delegate;
+    this.cache = cache;
+  }
+
+  @Override
+  public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+    if (!(authentication.getCredentials() instanceof String password)) {
+      return delegate.authenticate(authentication);
+    }
+
+    String username = authentication.getName();
+    Authentication cached = cache.get(username, password);
+    if (cached != null) {
+      return cached;
+    }
+
+    Authentication result = delegate.authenticate(authentication);
+    if (result != null && result.isAuthenticated()) {
+      cache.put(username, password, result);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean supports(Class<?> authentication) {
+    return delegate.supports(authentication);
+  }
+}
@@ -1,8 +1,47 @@
 package example.cashcard;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
 
-record CashCard(@Id Long id, Double amount, String owner) {}
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// O amount é guardado em centavos (long, coluna AMOUNT BIGINT) e aparece no JSON como "amount": 123.45 (ver CashCardAmount).
+// O version é incrementado a cada escrita e vira o ETag do cartão; ele não faz parte do JSON,
+// que continua sendo só id, amount e owner. A escrita do JSON é a do CashCardSerializer; a leitura segue as anotações abaixo.
+@JsonSerialize(using = CashCardSerializer.class)
+record CashCard(
+    @Id Long id,
+    @Column("AMOUNT")
+    @JsonProperty("amount")
+    @JsonDeserialize(using = CashCardAmount.Deserializer.class)
+    long amountInCents,
+    String owner,
+    @Version @JsonIgnore Long version) {
+
+  @PersistenceCreator
+  CashCard {
+  }
+
+  // Cartões ainda não gravados (ou montados a partir do JSON) não têm versão. Fábricas com nome, e não dois
+  // construtores: new CashCard(null, 100, o) e new CashCard(null, 100.0, o) seriam 1.00 e 100.00.
+  static CashCard ofCents(Long id, long amountInCents, String owner) {
+    return new CashCard(id, amountInCents, owner, null);
+  }
+
+  // Em reais, usado por testes e benchmarks: CashCard.ofAmount(99L, 123.45, "sarah1").
+  static CashCard ofAmount(Long id, double amount, String owner) {
+    return new CashCard(id, CashCardAmount.toCents(amount), owner, null);
+  }
+
+  double amount() {
+    return CashCardAmount.toDouble(amountInCents);
+  }
+}
 
 /*
 O que é uma record?
@@ -0,0 +1,83 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+// Valores em dinheiro circulam como long em centavos (123.45 -> 12345): sem Double em caixa por linha,
+// sem conversão decimal/binário no JDBC e sem perda de precisão em somas.
+// No JSON continuam sendo números com duas casas, como sempre foram.
+final class CashCardAmount {
+  static final int SCALE = 2;
+
+  private CashCardAmount() {
+  }
+
+  // Para código que ainda fala em reais como double (testes, benchmarks); arredonda para o centavo mais próximo.
+  static long toCents(double amount) {
+    return Math.round(amount * 100);
+  }
+
+  static double toDouble(long cents) {
+    return cents / 100.0;
+  }
+
+  // Lança ArithmeticException quando o valor tem mais de duas casas ou não cabe em um long.
+  static long toCents(BigDecimal amount) {
+    return amount.movePointRight(SCALE).longValueExact();
+  }
+
+  // O mesmo texto que BigDecimal.valueOf(cents, 2).toPlainString(), sem criar o BigDecimal: 12345 -> "123.45", -5 -> "-0.05".
+  static String toPlainString(long cents) {
+    long units = cents / 100;
+    int fraction = (int) Math.abs(cents % 100);
+    StringBuilder text = new StringBuilder(24);
+    if (cents < 0 && units == 0) {
+      text.append('-');
+    }
+    text.append(units).append('.');
+    if (fraction < 10) {
+      text.append('0');
+    }
+    return text.append(fraction).toString();
+  }
+
+  static final class Serializer extends StdSerializer<Long> {
+    Serializer() {
+      super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long cents, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeNumber(toPlainString(cents));
+    }
+  }
+
+  static final class Deserializer extends StdDeserializer<Long> {
+    Deserializer() {
+      super(Long.class);
+    }
+
+    //-- O texto do número vira BigDecimal direto, sem passar por double; 0.1 chega como exatamente 10 centavos.
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT && parser.currentToken() != JsonToken.VALUE_NUMBER_FLOAT) {
+        return (Long) context.handleUnexpectedToken(Long.class, parser);
+      }
+      BigDecimal amount = parser.getDecimalValue();
+      try {
+        return toCents(amount);
+      } catch (ArithmeticException e) {
+        throw InvalidFormatException.from(parser, "Amounts must have at most " + SCALE + " decimal places", amount, Long.class);
+      }
+    }
+  }
+}
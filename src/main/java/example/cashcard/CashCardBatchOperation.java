@@ -0,0 +1,28 @@
+package example.cashcard;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+// Um item do array recebido por POST /cashcards/batch, por exemplo {"op": "update", "id": 99, "amount": 10.00}.
+// O amount chega em reais e fica em centavos (ver CashCardAmount); null quando o item não tem amount.
+record CashCardBatchOperation(Type op, Long id,
+    @JsonProperty("amount") @JsonDeserialize(using = CashCardAmount.Deserializer.class) Long amountInCents) {
+
+  enum Type {
+    @JsonProperty("create") CREATE,
+    @JsonProperty("update") UPDATE,
+    @JsonProperty("delete") DELETE
+  }
+
+  boolean isValid() {
+    if (op == null) {
+      //-- Item sem "op" (ou com "op": null): vira um 400 só dele, como uma operação desconhecida.
+      return false;
+    }
+    return switch (op) {
+      case CREATE -> amountInCents != null;
+      case UPDATE -> id != null && amountInCents != null;
+      case DELETE -> id != null;
+    };
+  }
+}
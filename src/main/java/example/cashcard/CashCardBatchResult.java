@@ -0,0 +1,4 @@
+package example.cashcard;
+
+// Resultado de um item do lote, na mesma posição (index) em que ele chegou; o status usa os mesmos códigos das rotas de um cartão só.
+record CashCardBatchResult(int index, CashCardBatchOperation.Type op, Long id, int status) {}
@@ -0,0 +1,270 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import example.cashcard.CashCardBatchOperation.Type;
+
+// Aplica o lote de POST /cashcards/batch lendo o array JSON item a item (sem carregar o corpo inteiro)
+// e gravando em blocos de chunkSize itens, cada bloco na sua própria transação.
+// Dentro de um bloco, itens seguidos da mesma operação viram um único batch JDBC, preservando a ordem do lote.
+// O resumo do owner (cash_card_summary) recebe um único delta por bloco, dentro da transação do bloco;
+// as mutações do bloco vão para o CashCardMutationLog depois do commit.
+// Um lote aceita no máximo maxItems itens, para que os resultados guardados para a resposta não cresçam sem limite.
+@Component
+class CashCardBatchWriter {
+  private static final String INSERT = "INSERT INTO cash_card (AMOUNT, OWNER) VALUES (?, ?)";
+  private static final String UPDATE = "UPDATE cash_card SET AMOUNT = ?, VERSION = VERSION + 1 WHERE ID = ? AND OWNER = ?";
+  private static final String DELETE = "DELETE FROM cash_card WHERE ID = ? AND OWNER = ?";
+  private static final String LOCK_CASH_CARDS = "SELECT ID, AMOUNT, OWNER, VERSION FROM cash_card WHERE OWNER = ? AND ID IN (%s) FOR UPDATE";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final CashCardCache cashCardCache;
+  private final CashCardSummaryRepository cashCardSummaryRepository;
+  private final CashCardMutationLog cashCardMutationLog;
+  private final CashCardListETags cashCardListETags;
+  private final int chunkSize;
+  private final int maxItems;
+
+  CashCardBatchWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+      CashCardCache cashCardCache, CashCardSummaryRepository cashCardSummaryRepository, CashCardMutationLog cashCardMutationLog,
+      CashCardListETags cashCardListETags,
+      @Value("${cashcard.batch.chunk-size:500}") int chunkSize,
+      @Value("${cashcard.batch.max-items:10000}") int maxItems) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.objectMapper = objectMapper;
+    this.cashCardCache = cashCardCache;
+    this.cashCardSummaryRepository = cashCardSummaryRepository;
+    this.cashCardMutationLog = cashCardMutationLog;
+    this.cashCardListETags = cashCardListETags;
+    this.chunkSize = chunkSize;
+    this.maxItems = maxItems;
+  }
+
+  // Os resultados são entregues ao sink assim que cada bloco é confirmado, então um JSON malformado
+  // no meio do lote ainda deixa o chamador saber o que já foi gravado.
+  // false quando o lote passa de maxItems: os primeiros maxItems itens são aplicados e o resto nem é lido.
+  boolean apply(String owner, InputStream body, Consumer<CashCardBatchResult> sink) throws IOException {
+    try (JsonParser parser = objectMapper.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new JsonParseException(parser, "Expected a JSON array of cash card operations");
+      }
+
+      List<CashCardBatchOperation> chunk = new ArrayList<>(chunkSize);
+      int firstIndex = 0;
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        if (firstIndex + chunk.size() == maxItems) {
+          if (!chunk.isEmpty()) {
+            applyChunk(owner, chunk, firstIndex).forEach(sink);
+          }
+          return false;
+        }
+        chunk.add(readOperation(parser));
+        if (chunk.size() == chunkSize) {
+          applyChunk(owner, chunk, firstIndex).forEach(sink);
+          firstIndex += chunk.size();
+          chunk.clear();
+        }
+      }
+      if (!chunk.isEmpty()) {
+        applyChunk(owner, chunk, firstIndex).forEach(sink);
+      }
+    }
+    return true;
+  }
+
+  private CashCardBatchOperation readOperation(JsonParser parser) throws IOException {
+    JsonNode node = parser.readValueAsTree();
+    try {
+      return objectMapper.treeToValue(node, CashCardBatchOperation.class);
+    } catch (JsonProcessingException e) {
+      //-- Um item inválido não derruba o lote inteiro: ele só recebe status 400.
+      return null;
+    }
+  }
+
+  private List<CashCardBatchResult> applyChunk(String owner, List<CashCardBatchOperation> chunk, int firstIndex) {
+    List<CashCardMutation> mutations = new ArrayList<>(chunk.size());
+    cashCardListETags.advance(owner);
+    List<CashCardBatchResult> results = CashCardWriter.inTransaction(transactionTemplate, status -> {
+      //-- Limpa o que uma tentativa anterior, desfeita, tenha deixado.
+      mutations.clear();
+      List<CashCardBatchResult> chunkResults = new ArrayList<>(chunk.size());
+      CashCardSummaryDelta summaryDelta = new CashCardSummaryDelta();
+      int start = 0;
+      while (start < chunk.size()) {
+        int end = endOfRun(chunk, start);
+        chunkResults.addAll(applyRun(owner, chunk.subList(start, end), firstIndex + start, summaryDelta, mutations));
+        start = end;
+      }
+      if (summaryDelta.isChanged()) {
+        cashCardSummaryRepository.applyDelta(owner, summaryDelta);
+      }
+      return chunkResults;
+    });
+
+    //-- Só depois do commit: invalidar antes deixaria um GET concorrente recarregar o valor antigo.
+    for (CashCardBatchResult result : results) {
+      if (result.status() == HttpStatus.CREATED.value() || result.status() == HttpStatus.NO_CONTENT.value()) {
+        cashCardCache.invalidate(result.id(), owner);
+      }
+    }
+    cashCardListETags.advance(owner);
+    mutations.forEach(cashCardMutationLog::append);
+    return results;
+  }
+
+  private static int endOfRun(List<CashCardBatchOperation> chunk, int start) {
+    CashCardBatchOperation first = chunk.get(start);
+    if (first == null || !first.isValid()) {
+      return start + 1;
+    }
+    int end = start + 1;
+    while (end < chunk.size()) {
+      CashCardBatchOperation next = chunk.get(end);
+      if (next == null || !next.isValid() || next.op() != first.op()) {
+        break;
+      }
+      end++;
+    }
+    return end;
+  }
+
+  private List<CashCardBatchResult> applyRun(String owner, List<CashCardBatchOperation> run, int firstIndex, CashCardSummaryDelta summaryDelta,
+      List<CashCardMutation> mutations) {
+    CashCardBatchOperation first = run.get(0);
+    if (first == null || !first.isValid()) {
+      Type op = first == null ? null : first.op();
+      Long id = first == null ? null : first.id();
+      return List.of(new CashCardBatchResult(firstIndex, op, id, HttpStatus.BAD_REQUEST.value()));
+    }
+
+    return switch (first.op()) {
+      case CREATE -> insert(owner, run, firstIndex, summaryDelta, mutations);
+      case UPDATE -> updateOrDelete(UPDATE, owner, run, firstIndex, summaryDelta, mutations, (ps, op) -> {
+        ps.setLong(1, op.amountInCents());
+        ps.setLong(2, op.id());
+        ps.setString(3, owner);
+      });
+      case DELETE -> updateOrDelete(DELETE, owner, run, firstIndex, summaryDelta, mutations, (ps, op) -> {
+        ps.setLong(1, op.id());
+        ps.setString(2, owner);
+      });
+    };
+  }
+
+  private List<CashCardBatchResult> insert(String owner, List<CashCardBatchOperation> run, int firstIndex, CashCardSummaryDelta summaryDelta,
+      List<CashCardMutation> mutations) {
+    GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+    jdbcTemplate.batchUpdate(
+      connection -> connection.prepareStatement(INSERT, new String[] { "ID" }),
+      setter(run, (ps, op) -> {
+        ps.setLong(1, op.amountInCents());
+        ps.setString(2, owner);
+      }),
+      keyHolder
+    );
+
+    List<Map<String, Object>> keys = keyHolder.getKeyList();
+    List<CashCardBatchResult> results = new ArrayList<>(run.size());
+    for (int i = 0; i < run.size(); i++) {
+      Long id = ((Number) keys.get(i).get("ID")).longValue();
+      results.add(new CashCardBatchResult(firstIndex + i, Type.CREATE, id, HttpStatus.CREATED.value()));
+      summaryDelta.added(run.get(i).amountInCents());
+      //-- Um cartão novo começa na versão 0 (o DEFAULT de VERSION no schema.sql).
+      mutations.add(CashCardMutation.now(CashCardMutation.Type.CREATE, id, 0, owner, run.get(i).amountInCents()));
+    }
+    return results;
+  }
+
+  private List<CashCardBatchResult> updateOrDelete(String sql, String owner, List<CashCardBatchOperation> run, int firstIndex,
+      CashCardSummaryDelta summaryDelta, List<CashCardMutation> mutations, ParameterSetter parameters) {
+    //-- O resumo precisa do amount anterior de cada cartão, e o log da versão; a leitura trava as linhas até o fim
+    //-- do bloco, então ninguém as altera entre ela e o batch.
+    Map<Long, CashCard> cashCards = lockCashCards(owner, run);
+    int[] counts = jdbcTemplate.batchUpdate(sql, setter(run, parameters));
+
+    List<CashCardBatchResult> results = new ArrayList<>(run.size());
+    for (int i = 0; i < run.size(); i++) {
+      CashCardBatchOperation op = run.get(i);
+      //-- Assim como nas rotas individuais, um id de outro owner é indistinguível de um id inexistente: 404.
+      boolean applied = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+      HttpStatus status = applied ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND;
+      results.add(new CashCardBatchResult(firstIndex + i, op.op(), op.id(), status.value()));
+      if (applied && cashCards.containsKey(op.id())) {
+        //-- O mapa acompanha o lote: um segundo update do mesmo id parte do amount e da versão deixados pelo primeiro.
+        if (op.op() == Type.UPDATE) {
+          CashCard previous = cashCards.get(op.id());
+          CashCard updated = new CashCard(op.id(), op.amountInCents(), owner, previous.version() + 1);
+          cashCards.put(op.id(), updated);
+          summaryDelta.replaced(previous.amountInCents(), updated.amountInCents());
+          mutations.add(CashCardMutation.now(CashCardMutation.Type.UPDATE, op.id(), updated.version(), owner, updated.amountInCents()));
+        } else {
+          CashCard previous = cashCards.remove(op.id());
+          summaryDelta.removed(previous.amountInCents());
+          mutations.add(CashCardMutation.now(CashCardMutation.Type.DELETE, op.id(), previous.version() + 1, owner, previous.amountInCents()));
+        }
+      }
+    }
+    return results;
+  }
+
+  private Map<Long, CashCard> lockCashCards(String owner, List<CashCardBatchOperation> run) {
+    List<Object> args = new ArrayList<>(run.size() + 1);
+    args.add(owner);
+    run.forEach(op -> args.add(op.id()));
+    String sql = LOCK_CASH_CARDS.formatted(String.join(", ", Collections.nCopies(run.size(), "?")));
+
+    Map<Long, CashCard> cashCards = new HashMap<>();
+    for (CashCard cashCard : jdbcTemplate.query(sql, CashCardRowMapper.INSTANCE, args.toArray())) {
+      cashCards.put(cashCard.id(), cashCard);
+    }
+    return cashCards;
+  }
+
+  private static BatchPreparedStatementSetter setter(List<CashCardBatchOperation> run, ParameterSetter parameters) {
+    return new BatchPreparedStatementSetter() {
+      @Override
+      public void setValues(PreparedStatement ps, int i) throws SQLException {
+        parameters.set(ps, run.get(i));
+      }
+
+      @Override
+      public int getBatchSize() {
+        return run.size();
+      }
+    };
+  }
+
+  @FunctionalInterface
+  private interface ParameterSetter {
+    void set(PreparedStatement ps, CashCardBatchOperation op) throws SQLException;
+  }
+}
@@ -0,0 +1,72 @@
+package example.cashcard;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+// Cache read-through de findByIdAndOwner, chaveado por (id, owner), com despejo W-TinyLFU limitado por tamanho.
+// Também guarda os 404 (Optional vazio), só que por bem menos tempo.
+// Toda escrita (POST, PUT, DELETE e o lote) chama invalidate logo depois de gravar, antes de responder.
+@Component
+class CashCardCache {
+  private final CashCardRepository cashCardRepository;
+  private final Cache<Key, Optional<CashCard>> cashCards;
+
+  CashCardCache(CashCardRepository cashCardRepository,
+      @Value("${cashcard.cache.maximum-size:10000}") long maximumSize,
+      @Value("${cashcard.cache.time-to-live:10m}") Duration timeToLive,
+      @Value("${cashcard.cache.negative-time-to-live:5s}") Duration negativeTimeToLive) {
+    this.cashCardRepository = cashCardRepository;
+    this.cashCards = Caffeine.newBuilder()
+      .maximumSize(maximumSize)
+      .expireAfter(new PositiveAndNegativeExpiry(timeToLive.toNanos(), negativeTimeToLive.toNanos()))
+      .recordStats()
+      .build();
+  }
+
+  CashCard findByIdAndOwner(Long id, String owner) {
+    return cashCards
+      .get(new Key(id, owner), key -> Optional.ofNullable(cashCardRepository.findByIdAndOwner(key.id(), key.owner())))
+      .orElse(null);
+  }
+
+  void invalidate(Long id, String owner) {
+    cashCards.invalidate(new Key(id, owner));
+  }
+
+  CacheStats stats() {
+    return cashCards.stats();
+  }
+
+  //-- Só para o MetricsConfig registrar as métricas do Caffeine.
+  Cache<?, ?> nativeCache() {
+    return cashCards;
+  }
+
+  private record Key(Long id, String owner) {}
+
+  // O prazo é decidido na criação da entrada e não muda com leituras ou atualizações.
+  private record PositiveAndNegativeExpiry(long timeToLiveNanos, long negativeTimeToLiveNanos) implements Expiry<Key, Optional<CashCard>> {
+    @Override
+    public long expireAfterCreate(Key key, Optional<CashCard> cashCard, long currentTime) {
+      return cashCard.isPresent() ? timeToLiveNanos : negativeTimeToLiveNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(Key key, Optional<CashCard> cashCard, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, cashCard, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Key key, Optional<CashCard> cashCard, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -1,14 +1,26 @@
 package example.cashcard;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 
 import java.security.Principal;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity; // Importa a classe ResponseEntity para construir a resposta HTTP.
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping; // Importa a anotação para mapear requisições GET.
@@ -16,20 +28,42 @@ import org.springframework.web.bind.annotation.PathVariable; // Importa a anota
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping; // Importa a anotação para mapear URLs de requisição.
 import org.springframework.web.bind.annotation.RestController; // Importa a anotação para definir um controlador REST.
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
 @RestController
 //-- A anotação @RestController indica que esta classe é um controlador REST, que manipula requisições HTTP e retorna respostas diretamente no corpo da resposta.
 @RequestMapping("/cashcards")
 //-- A anotação @RequestMapping define a URL base para todas as requisições que serão tratadas por este controlador. Neste caso, todas as requisições para "/cashcards" serão tratadas aqui.
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+//-- Só existe na pilha servlet; com spring.main.web-application-type=reactive quem atende /cashcards é o ReactiveCashCardController.
 public class CashCardController {
+  //-- Sem isto o Spring Security mandaria no-store; assim o cliente guarda a página, mas revalida com o ETag a cada uso.
+  private static final CacheControl LIST_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
   private final CashCardRepository cashCardRepository; // Declaração da variável para o repositório de CashCard.
+  private final CashCardBatchWriter cashCardBatchWriter;
+  private final CashCardExporter cashCardExporter;
+  private final CashCardCache cashCardCache;
+  private final CashCardWriter cashCardWriter;
+  private final CashCardSummaryRepository cashCardSummaryRepository;
+  private final CashCardListETags cashCardListETags;
 
   // Construtor que injeta o CashCardRepository na classe CashCardController.
-  private CashCardController(CashCardRepository cashCardRepository) {
+  private CashCardController(CashCardRepository cashCardRepository, CashCardBatchWriter cashCardBatchWriter, CashCardExporter cashCardExporter, CashCardCache cashCardCache,
+      CashCardWriter cashCardWriter, CashCardSummaryRepository cashCardSummaryRepository, CashCardListETags cashCardListETags) {
       this.cashCardRepository = cashCardRepository; // Atribui o repositório recebido à variável de instância.
+      this.cashCardBatchWriter = cashCardBatchWriter;
+      this.cashCardExporter = cashCardExporter;
+      this.cashCardCache = cashCardCache;
+      this.cashCardWriter = cashCardWriter;
+      this.cashCardSummaryRepository = cashCardSummaryRepository;
+      this.cashCardListETags = cashCardListETags;
   }
 
   @GetMapping("/{requestedId}")
@@ -41,8 +75,9 @@ public class CashCardController {
 
     if (cashCard != null) {
         //-- Verifica se o CashCard foi encontrado no repositório.
-        return ResponseEntity.ok(cashCard);
+        return ResponseEntity.ok().eTag(CashCardETag.of(cashCard.version())).body(cashCard);
         //-- Se encontrado, retorna uma resposta HTTP 200 OK com o objeto CashCard no corpo da resposta.
+        //-- Com o ETag presente, o Spring MVC responde 304 sem corpo (e sem serializar o cartão) quando o If-None-Match bate.
     } else {
         return ResponseEntity.notFound().build();
         //-- Se não encontrado, retorna uma resposta HTTP 404 Not Found, indicando que o recurso não foi encontrado.
@@ -50,9 +85,11 @@ public class CashCardController {
   }
 
   @PostMapping
-  private ResponseEntity<Void> createCashCard(@RequestBody CashCard newCashCardRequest, UriComponentsBuilder ucb, Principal principal) {
-    CashCard cashCardWithOwner = new CashCard(null, newCashCardRequest.amount(), principal.getName());
-    CashCard savedCashCard = cashCardRepository.save(cashCardWithOwner);
+  private ResponseEntity<Void> createCashCard(@RequestBody CashCardRequest newCashCardRequest, UriComponentsBuilder ucb, Principal principal) {
+    if (newCashCardRequest.amountInCents() == null) {
+      return ResponseEntity.badRequest().build();
+    }
+    CashCard savedCashCard = cashCardWriter.create(principal.getName(), newCashCardRequest.amountInCents());
     URI locationOfNewCashCard = ucb
       .path("cashcards/{id}")
       .buildAndExpand(savedCashCard.id())
@@ -60,9 +97,39 @@ public class CashCardController {
     return ResponseEntity.created(locationOfNewCashCard).build();
   }
 
+  @PostMapping("/batch")
+  private ResponseEntity<List<CashCardBatchResult>> applyBatch(InputStream body, Principal principal) throws IOException {
+    //-- O corpo é lido como stream: cada item vira um resultado, na mesma ordem em que chegou.
+    List<CashCardBatchResult> results = new ArrayList<>();
+    try {
+      if (!cashCardBatchWriter.apply(principal.getName(), body, results::add)) {
+        //-- Lote acima de cashcard.batch.max-items: 413 com os resultados dos itens que couberam.
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(results);
+      }
+    } catch (JsonProcessingException e) {
+      //-- JSON malformado: os blocos anteriores já foram gravados e seus resultados voltam junto com o 400.
+      return ResponseEntity.badRequest().body(results);
+    }
+    return ResponseEntity.ok(results);
+  }
+
   @GetMapping
-  private ResponseEntity<List<CashCard>> findAll(Pageable pageable, Principal principal) {
-    Page<CashCard> page = cashCardRepository.findByOwner(
+  private ResponseEntity<List<CashCard>> findAll(Pageable pageable, @RequestParam(required = false) String after, Principal principal,
+      ServletWebRequest request) {
+    //-- Nada mudou para este owner desde o ETag que o cliente já tem: 304 sem ir ao banco nem passar pelo Jackson.
+    //-- O ETag não depende do conteúdo, só da geração do owner no CashCardListETags e da página pedida.
+    String eTag = cashCardListETags.of(principal.getName(), pageable + "|" + after);
+    if (request.checkNotModified(eTag)) {
+      request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, LIST_CACHE_CONTROL.getHeaderValue());
+      return null;
+    }
+
+    if (after != null) {
+      //-- Com o parâmetro "after" (mesmo vazio, para a primeira página) a listagem usa keyset em vez de OFFSET.
+      return findAllAfter(after, pageable, principal, eTag);
+    }
+
+    Page<CashCard> page = cashCardRepository.findPageByOwner(
       principal.getName(),
       PageRequest.of(
         pageable.getPageNumber(),
@@ -71,24 +138,87 @@ public class CashCardController {
       )
     );
 
-    return ResponseEntity.ok(page.getContent());
+    return ResponseEntity.ok().eTag(eTag).cacheControl(LIST_CACHE_CONTROL).body(page.getContent());
+  }
+
+  @GetMapping("/summary")
+  private ResponseEntity<CashCardSummary> summary(Principal principal) {
+    //-- Uma leitura por chave primária, mantida a cada escrita: o custo não cresce com a quantidade de cartões.
+    return ResponseEntity.ok(cashCardSummaryRepository.findByOwner(principal.getName())
+      .orElseGet(() -> CashCardSummary.empty(principal.getName())));
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  private void exportCashCards(Principal principal, HttpServletResponse response) throws IOException {
+    //-- Escreve direto na resposta, sem montar um Page nem uma List: um cartão por linha, conforme o cursor avança.
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    cashCardExporter.export(principal.getName(), response.getOutputStream());
+  }
+
+  private ResponseEntity<List<CashCard>> findAllAfter(String after, Pageable pageable, Principal principal, String eTag) {
+    if (pageable.getSort().isSorted()) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    CashCardCursor cursor;
+    try {
+      cursor = after.isEmpty() ? null : CashCardCursor.decode(after);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    int limit = pageable.getPageSize();
+    List<CashCard> slice = cursor == null
+      ? cashCardRepository.findFirstSliceByOwner(principal.getName(), limit)
+      : cashCardRepository.findSliceByOwnerAfter(principal.getName(), cursor.amountInCents(), cursor.id(), limit);
+
+    if (slice.size() < limit) {
+      return ResponseEntity.ok().eTag(eTag).cacheControl(LIST_CACHE_CONTROL).body(slice);
+    }
+
+    URI next = ServletUriComponentsBuilder.fromCurrentRequest()
+      .replaceQueryParam("after", CashCardCursor.after(slice.get(slice.size() - 1)).encode())
+      .build()
+      .toUri();
+    return ResponseEntity.ok()
+      .eTag(eTag)
+      .cacheControl(LIST_CACHE_CONTROL)
+      .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+      .body(slice);
   }
 
   @PutMapping("/{requestedId}")
-  private ResponseEntity<Void> putCashCard(@PathVariable Long requestedId, @RequestBody CashCard cashCardUpdate, Principal principal) {
-    CashCard cashCard = findCashCard(requestedId, principal);
-    if (cashCard != null) {
-      CashCard updatedCashCard = new CashCard(cashCard.id(), cashCardUpdate.amount(), principal.getName());
-      cashCardRepository.save(updatedCashCard);
-      return ResponseEntity.noContent().build();
+  private ResponseEntity<Void> putCashCard(@PathVariable Long requestedId, @RequestBody CashCardRequest cashCardUpdate,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, Principal principal) {
+    if (cashCardUpdate.amountInCents() == null) {
+      return ResponseEntity.badRequest().build();
+    }
+    String owner = principal.getName();
+    if (ifMatch == null || ifMatch.equals("*")) {
+      if (cashCardWriter.update(requestedId, owner, cashCardUpdate.amountInCents())) {
+        return ResponseEntity.noContent().build();
+      }
+      //-- If-Match: * sem cartão atual é 412, não 404 (RFC 9110, 13.1.1).
+      return ifMatch == null ? ResponseEntity.notFound().build() : ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    //-- Com If-Match o UPDATE só acontece se a versão ainda for a que o cliente leu: duas escritas concorrentes
+    //-- a partir da mesma leitura não se sobrescrevem, a segunda recebe 412.
+    Long expectedVersion = CashCardETag.versionOf(ifMatch);
+    if (expectedVersion != null
+        && cashCardWriter.update(requestedId, owner, expectedVersion, cashCardUpdate.amountInCents())) {
+      return ResponseEntity.noContent().eTag(CashCardETag.of(expectedVersion + 1)).build();
+    }
+    //-- A consulta extra só roda quando o UPDATE falha, para separar versão antiga (412) de cartão inexistente (404).
+    if (cashCardRepository.existsByIdAndOwner(requestedId, owner)) {
+      return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
     }
     return ResponseEntity.notFound().build();
   }
 
   @DeleteMapping("/{id}")
   private ResponseEntity<Void> deleteCashCard(@PathVariable Long id, Principal principal) {
-    if (cashCardRepository.existsByIdAndOwner(id, principal.getName())) {
-      cashCardRepository.deleteById(id);
+    if (cashCardWriter.delete(id, principal.getName())) {
       return ResponseEntity.noContent().build();
     }
 
@@ -96,6 +226,6 @@ public class CashCardController {
   }
 
   private CashCard findCashCard(Long requestedId, Principal principal) {
-    return cashCardRepository.findByIdAndOwner(requestedId, principal.getName());
+    return cashCardCache.findByIdAndOwner(requestedId, principal.getName());
   }
 }
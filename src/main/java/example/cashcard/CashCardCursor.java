@@ -0,0 +1,30 @@
+package example.cashcard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Posição opaca para a paginação por keyset: guarda o último par (amount, id) entregue na ordem padrão "amount ASC, id ASC".
+record CashCardCursor(long amountInCents, Long id) {
+
+  static CashCardCursor after(CashCard cashCard) {
+    return new CashCardCursor(cashCard.amountInCents(), cashCard.id());
+  }
+
+  String encode() {
+    String position = amountInCents + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+  }
+
+  // Lança IllegalArgumentException quando o token não foi gerado por encode().
+  static CashCardCursor decode(String token) {
+    String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    int separator = position.lastIndexOf(':');
+    if (separator < 0) {
+      throw new IllegalArgumentException("Malformed cursor: " + token);
+    }
+    return new CashCardCursor(
+      Long.parseLong(position.substring(0, separator)),
+      Long.valueOf(position.substring(separator + 1))
+    );
+  }
+}
@@ -0,0 +1,27 @@
+package example.cashcard;
+
+// O ETag (forte) de um cartão é a sua versão entre aspas, por exemplo "3".
+// Como a versão muda a cada escrita, ETags iguais garantem o mesmo conteúdo.
+final class CashCardETag {
+
+  private CashCardETag() {
+  }
+
+  static String of(Long version) {
+    return "\"" + version + "\"";
+  }
+
+  // Versão de um If-Match com um único ETag forte; null para ETags fracos, listas ou valores que não são nossos,
+  // que portanto nunca batem com nenhuma versão.
+  static Long versionOf(String eTag) {
+    String value = eTag.trim();
+    if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+      return null;
+    }
+    try {
+      return Long.valueOf(value.substring(1, value.length() - 1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Escreve os cartões de um owner como NDJSON (um CashCard por linha) direto do cursor JDBC para a resposta.
+// Nenhuma lista é montada: a memória por exportação é constante, e como a escrita no socket é bloqueante,
+// um cliente lento simplesmente segura a leitura do cursor (back-pressure).
+@Component
+class CashCardExporter {
+  private final CashCardRepository cashCardRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnlyTransaction;
+  private final ObjectMapper objectMapper;
+  private final ObjectWriter cashCardWriter;
+
+  CashCardExporter(CashCardRepository cashCardRepository, JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+    this.cashCardRepository = cashCardRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.objectMapper = objectMapper;
+    this.cashCardWriter = objectMapper.writerFor(CashCard.class)
+      .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  void export(String owner, OutputStream out) throws IOException {
+    try {
+      readOnlyTransaction.executeWithoutResult(status -> {
+        //-- Por padrão o H2 materializa o resultado inteiro antes de devolver a primeira linha;
+        //-- no modo lazy ele produz as linhas conforme o cursor avança.
+        jdbcTemplate.execute("SET LAZY_QUERY_EXECUTION TRUE");
+        try (Stream<CashCard> cashCards = cashCardRepository.streamByOwner(owner);
+             JsonGenerator generator = objectMapper.createGenerator(out)) {
+          generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+          generator.setRootValueSeparator(null);
+          Iterator<CashCard> iterator = cashCards.iterator();
+          while (iterator.hasNext()) {
+            cashCardWriter.writeValue(generator, iterator.next());
+            generator.writeRaw('\n');
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        } finally {
+          jdbcTemplate.execute("SET LAZY_QUERY_EXECUTION FALSE");
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package example.cashcard;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// ETags fracos das listagens de GET /cashcards, sem ler o banco nem serializar nada: cada owner tem uma geração em
+// memória que toda escrita dele avança, e o ETag de uma página é W/"<instância>.<geração>.<hash da página>".
+//
+// As gerações vêm de um relógio único que só cresce: um owner despejado do cache (ou visto pela primeira vez)
+// recebe um valor novo, maior que qualquer um já entregue, então nunca volta a bater com um ETag antigo. Os
+// escritores avançam a geração antes da transação e de novo depois do commit; assim, quem leu a geração enquanto
+// a escrita estava em andamento marca a página com um valor que o segundo avanço invalida. O prefixo aleatório da
+// instância faz os ETags de outro processo (ou de antes de um reinício) simplesmente não baterem.
+@Component
+class CashCardListETags {
+  private final String instance = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+  private final AtomicLong clock = new AtomicLong();
+  private final Cache<String, Long> generations;
+
+  CashCardListETags(@Value("${cashcard.list-etags.maximum-size:100000}") long maximumSize) {
+    this.generations = Caffeine.newBuilder()
+      .maximumSize(maximumSize)
+      .build();
+  }
+
+  // pageKey identifica a página pedida (número, tamanho, ordenação ou cursor). O If-None-Match só é comparado com o
+  // ETag da mesma URL, então o hash só separa as páginas no ETag; o String.hashCode basta.
+  String of(String owner, String pageKey) {
+    long generation = generations.get(owner, key -> clock.incrementAndGet());
+    return "W/\"" + instance + "." + Long.toString(generation, 36) + "." + Integer.toUnsignedString(pageKey.hashCode(), 36) + "\"";
+  }
+
+  void advance(String owner) {
+    generations.put(owner, clock.incrementAndGet());
+  }
+}
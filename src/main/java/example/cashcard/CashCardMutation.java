@@ -0,0 +1,44 @@
+package example.cashcard;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Uma escrita já confirmada em um cartão, do jeito que entra no log de mutações (CashCardMutationLog).
+// No DELETE o amount é o que o cartão tinha quando foi apagado.
+// A version é a que a escrita deixou no cartão (no DELETE, uma a mais que a última), tirada da linha travada dentro
+// da transação. As mutações entram no log depois do commit, então duas escritas concorrentes no mesmo cartão podem
+// chegar fora de ordem, e o timestamp (também de depois do commit) não as desempata; a version sim.
+record CashCardMutation(long timestamp, Type type, long id, long version, String owner, long amountInCents) {
+  // timestamp, tipo, id, version e amount; o owner em UTF-8 ocupa o resto do payload.
+  static final int FIXED_PAYLOAD_BYTES = Long.BYTES + 1 + Long.BYTES + Long.BYTES + Long.BYTES;
+
+  enum Type {
+    CREATE,
+    UPDATE,
+    DELETE
+  }
+
+  static CashCardMutation now(Type type, long id, long version, String owner, long amountInCents) {
+    return new CashCardMutation(System.currentTimeMillis(), type, id, version, owner, amountInCents);
+  }
+
+  void encode(ByteBuffer payload) {
+    payload.putLong(timestamp)
+      .put((byte) type.ordinal())
+      .putLong(id)
+      .putLong(version)
+      .putLong(amountInCents)
+      .put(owner.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static CashCardMutation decode(ByteBuffer payload) {
+    long timestamp = payload.getLong();
+    Type type = Type.values()[payload.get()];
+    long id = payload.getLong();
+    long version = payload.getLong();
+    long amountInCents = payload.getLong();
+    byte[] owner = new byte[payload.remaining()];
+    payload.get(owner);
+    return new CashCardMutation(timestamp, type, id, version, new String(owner, StandardCharsets.UTF_8), amountInCents);
+  }
+}
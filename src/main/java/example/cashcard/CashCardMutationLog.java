@@ -0,0 +1,309 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+// Histórico append-only de toda escrita em cartões (rotas individuais e lote), gravado fora do caminho da requisição:
+// append só enfileira, e uma thread de fundo grava em lotes num arquivo mapeado em memória.
+//
+// A fila é uma ConcurrentLinkedQueue (sem locks) limitada por um contador; cheia, a mutação é descartada (overflow=drop)
+// ou quem escreve espera até offer-timeout por espaço (overflow=wait), e só então descarta. Os dois casos viram métricas.
+//
+// Os segmentos são arquivos mutations-<epoch-ms>-<n>.log de segment-size bytes, criados já no tamanho final e nunca reabertos
+// para escrita: cada rolagem e cada reinício começa um novo. Cada registro é [tamanho][CRC32C][payload], e um tamanho zero
+// marca o fim do que foi escrito. O que está no mapeamento já sobrevive a uma queda do processo; o fsync (force) é o que
+// protege contra queda do sistema operacional, e a política diz quando ele roda:
+//   never     fica a cargo do sistema operacional
+//   batch     depois de cada lote gravado
+//   interval  no máximo a cada fsync-interval (padrão)
+// O CashCardMutationLogReader lê os segmentos de volta, em ordem, e é dono do formato: nome dos segmentos e cabeçalho
+// dos registros (o payload é o do CashCardMutation).
+@Component
+class CashCardMutationLog implements SmartLifecycle {
+  private static final Logger log = LoggerFactory.getLogger(CashCardMutationLog.class);
+
+  // O owner tem no máximo 256 caracteres (schema.sql), ou seja, até 768 bytes em UTF-8.
+  private static final int MAX_RECORD_BYTES = CashCardMutationLogReader.HEADER_BYTES + CashCardMutation.FIXED_PAYLOAD_BYTES + 1024;
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+  private static final long WAIT_STEP_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  enum FsyncPolicy {
+    NEVER,
+    BATCH,
+    INTERVAL
+  }
+
+  enum OverflowPolicy {
+    DROP,
+    WAIT
+  }
+
+  private final boolean enabled;
+  private final Path directory;
+  private final int queueCapacity;
+  private final int batchSize;
+  private final int segmentSize;
+  private final FsyncPolicy fsyncPolicy;
+  private final long fsyncIntervalNanos;
+  private final OverflowPolicy overflowPolicy;
+  private final long offerTimeoutNanos;
+
+  private final Queue<CashCardMutation> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger depth = new AtomicInteger();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder backpressure = new LongAdder();
+  private final LongAdder written = new LongAdder();
+  private volatile boolean running;
+  private Thread writer;
+
+  //-- Estado da thread de fundo; nada abaixo é tocado por quem chama append.
+  private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_BYTES);
+  private final CRC32C crc = new CRC32C();
+  private FileChannel channel;
+  private MappedByteBuffer segment;
+  private boolean unforced;
+  private long lastForce;
+
+  CashCardMutationLog(@Value("${cashcard.audit.enabled:true}") boolean enabled,
+      @Value("${cashcard.audit.directory:./data/audit}") Path directory,
+      @Value("${cashcard.audit.queue-capacity:65536}") int queueCapacity,
+      @Value("${cashcard.audit.batch-size:1024}") int batchSize,
+      @Value("${cashcard.audit.segment-size:64MB}") DataSize segmentSize,
+      @Value("${cashcard.audit.fsync:interval}") FsyncPolicy fsyncPolicy,
+      @Value("${cashcard.audit.fsync-interval:1s}") Duration fsyncInterval,
+      @Value("${cashcard.audit.overflow:drop}") OverflowPolicy overflowPolicy,
+      @Value("${cashcard.audit.offer-timeout:50ms}") Duration offerTimeout) {
+    this.enabled = enabled;
+    this.directory = directory;
+    this.queueCapacity = queueCapacity;
+    this.batchSize = batchSize;
+    this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+    this.fsyncPolicy = fsyncPolicy;
+    this.fsyncIntervalNanos = fsyncInterval.toNanos();
+    this.overflowPolicy = overflowPolicy;
+    this.offerTimeoutNanos = offerTimeout.toNanos();
+  }
+
+  // Chamado depois do commit. Nunca faz I/O; no pior caso (overflow=wait com a fila cheia) espera offer-timeout.
+  void append(CashCardMutation mutation) {
+    if (!enabled) {
+      return;
+    }
+    if (!reserve()) {
+      dropped.increment();
+      return;
+    }
+    queue.offer(mutation);
+  }
+
+  private boolean reserve() {
+    if (tryReserve()) {
+      return true;
+    }
+    if (overflowPolicy == OverflowPolicy.DROP) {
+      return false;
+    }
+    backpressure.increment();
+    long deadline = System.nanoTime() + offerTimeoutNanos;
+    do {
+      LockSupport.parkNanos(WAIT_STEP_NANOS);
+      if (tryReserve()) {
+        return true;
+      }
+    } while (System.nanoTime() < deadline);
+    return false;
+  }
+
+  private boolean tryReserve() {
+    int current;
+    do {
+      current = depth.get();
+      if (current >= queueCapacity) {
+        return false;
+      }
+    } while (!depth.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  int queueDepth() {
+    return depth.get();
+  }
+
+  double droppedCount() {
+    return dropped.sum();
+  }
+
+  double backpressureCount() {
+    return backpressure.sum();
+  }
+
+  double writtenCount() {
+    return written.sum();
+  }
+
+  @Override
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    running = true;
+    writer = new Thread(this::writeLoop, "cashcard-mutation-log");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  // Para de aceitar trabalho novo na thread de fundo só depois de gravar o que já estava na fila.
+  @Override
+  public void stop() {
+    if (writer == null) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(writer);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    writer = null;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  //-- Sobe antes e para depois do servidor web (DEFAULT_PHASE - 2048), então as requisições que ainda estão
+  //-- terminando no desligamento entram no log.
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 4096;
+  }
+
+  private void writeLoop() {
+    List<CashCardMutation> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      drain(batch);
+      if (batch.isEmpty()) {
+        forceIfDue();
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        continue;
+      }
+      try {
+        write(batch);
+      } catch (IOException | RuntimeException e) {
+        log.error("Could not write {} cash card mutation(s) to {}", batch.size(), directory, e);
+        dropped.add(batch.size());
+        closeSegment();
+      }
+      batch.clear();
+    }
+    closeSegment();
+  }
+
+  private void drain(List<CashCardMutation> batch) {
+    CashCardMutation mutation;
+    while (batch.size() < batchSize && (mutation = queue.poll()) != null) {
+      depth.decrementAndGet();
+      batch.add(mutation);
+    }
+  }
+
+  private void write(List<CashCardMutation> batch) throws IOException {
+    for (CashCardMutation mutation : batch) {
+      encode(mutation);
+      if (segment == null || segment.remaining() < scratch.remaining() + CashCardMutationLogReader.HEADER_BYTES) {
+        openSegment();
+      }
+      segment.put(scratch);
+      written.increment();
+    }
+    unforced = true;
+    if (fsyncPolicy == FsyncPolicy.BATCH) {
+      force();
+    } else {
+      forceIfDue();
+    }
+  }
+
+  //-- Deixa o registro inteiro (cabeçalho e payload) entre a posição e o limite do scratch.
+  private void encode(CashCardMutation mutation) {
+    scratch.clear();
+    scratch.position(CashCardMutationLogReader.HEADER_BYTES);
+    mutation.encode(scratch);
+    int payloadLength = scratch.position() - CashCardMutationLogReader.HEADER_BYTES;
+    crc.reset();
+    crc.update(scratch.array(), CashCardMutationLogReader.HEADER_BYTES, payloadLength);
+    scratch.putInt(0, payloadLength).putInt(Integer.BYTES, (int) crc.getValue());
+    scratch.flip();
+  }
+
+  private void forceIfDue() {
+    if (fsyncPolicy == FsyncPolicy.INTERVAL && segment != null && unforced && System.nanoTime() - lastForce >= fsyncIntervalNanos) {
+      force();
+    }
+  }
+
+  private void force() {
+    segment.force();
+    unforced = false;
+    lastForce = System.nanoTime();
+  }
+
+  private void openSegment() throws IOException {
+    closeSegment();
+    Files.createDirectories(directory);
+    long createdAt = System.currentTimeMillis();
+    for (int n = 0; ; n++) {
+      Path path = directory.resolve(CashCardMutationLogReader.segmentName(createdAt, n));
+      try {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        break;
+      } catch (FileAlreadyExistsException e) {
+        //-- Outra instância (ou a rolagem anterior) criou um segmento no mesmo milissegundo.
+      }
+    }
+    segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+  }
+
+  //-- O segmento que sai sempre vai para o disco, qualquer que seja a política.
+  private void closeSegment() {
+    if (segment == null) {
+      return;
+    }
+    try {
+      if (unforced) {
+        force();
+      }
+      channel.close();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not close cash card mutation log segment in {}", directory, e);
+    }
+    segment = null;
+    channel = null;
+    unforced = false;
+  }
+}
@@ -0,0 +1,112 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Lê de volta os segmentos do CashCardMutationLog, do mais antigo para o mais novo. Em cada segmento a leitura para
+// no primeiro registro vazio (fim do que foi escrito) ou com CRC errado (escrita interrompida por uma queda).
+// Também roda sozinho, sem subir a aplicação, e imprime uma mutação por linha:
+//   java -cp target/classes example.cashcard.CashCardMutationLogReader [diretório] [owner]
+// Por isso o formato dos segmentos mora aqui e no CashCardMutation, e nada nesta classe pode carregar o Spring.
+final class CashCardMutationLogReader {
+  static final String SEGMENT_PREFIX = "mutations-";
+  static final String SEGMENT_SUFFIX = ".log";
+  // [tamanho do payload][CRC32C do payload]
+  static final int HEADER_BYTES = Integer.BYTES * 2;
+
+  private CashCardMutationLogReader() {
+  }
+
+  // Devolve quantas mutações foram entregues ao consumer. Duas escritas no mesmo cartão são confirmadas na ordem
+  // da version, mas podem entrar no log fora dela; a que chega depois de uma mais nova do mesmo cartão é pulada,
+  // e assim cada cartão termina no estado da sua última escrita confirmada. Isso supõe que um id é sempre o mesmo cartão:
+  // com o H2 em memória os ids recomeçam a cada execução, então cada execução precisa do seu próprio diretório.
+  static long replay(Path directory, Consumer<CashCardMutation> consumer) throws IOException {
+    Map<Long, Long> newestVersions = new HashMap<>();
+    long count = 0;
+    for (Path segment : segments(directory)) {
+      count += replaySegment(segment, mutation -> {
+        Long newestVersion = newestVersions.get(mutation.id());
+        if (newestVersion != null && mutation.version() <= newestVersion) {
+          return false;
+        }
+        newestVersions.put(mutation.id(), mutation.version());
+        consumer.accept(mutation);
+        return true;
+      });
+    }
+    return count;
+  }
+
+  //-- Com o instante de criação no nome, a ordem alfabética dos segmentos é a ordem em que foram escritos.
+  static String segmentName(long createdAt, int n) {
+    return SEGMENT_PREFIX + "%013d-%04d".formatted(createdAt, n) + SEGMENT_SUFFIX;
+  }
+
+  static List<Path> segments(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+        .filter(path -> {
+          String name = path.getFileName().toString();
+          return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+        })
+        .sorted()
+        .toList();
+    }
+  }
+
+  private static long replaySegment(Path segment, Predicate<CashCardMutation> consumer) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    CRC32C crc = new CRC32C();
+    long count = 0;
+    while (buffer.remaining() >= HEADER_BYTES) {
+      int length = buffer.getInt();
+      int checksum = buffer.getInt();
+      if (length < CashCardMutation.FIXED_PAYLOAD_BYTES || length > buffer.remaining()) {
+        break;
+      }
+      ByteBuffer payload = buffer.slice(buffer.position(), length);
+      crc.reset();
+      crc.update(payload.duplicate());
+      if ((int) crc.getValue() != checksum) {
+        break;
+      }
+      if (consumer.test(CashCardMutation.decode(payload))) {
+        count++;
+      }
+      buffer.position(buffer.position() + length);
+    }
+    return count;
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path directory = Path.of(args.length > 0 ? args[0] : "./data/audit");
+    String owner = args.length > 1 ? args[1] : null;
+    replay(directory, mutation -> {
+      if (owner == null || owner.equals(mutation.owner())) {
+        System.out.printf("%s %-6s %d v%d %s %s%n", Instant.ofEpochMilli(mutation.timestamp()), mutation.type(),
+          mutation.id(), mutation.version(), mutation.owner(), CashCardAmount.toPlainString(mutation.amountInCents()));
+      }
+    });
+  }
+}
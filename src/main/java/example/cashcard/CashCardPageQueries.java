@@ -0,0 +1,10 @@
+package example.cashcard;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+// Parte do CashCardRepository escrita à mão: o Spring Data JDBC não aceita Page em @Query,
+// e a consulta derivada passaria pelo mapeamento reflexivo em vez do CashCardRowMapper.
+interface CashCardPageQueries {
+  Page<CashCard> findPageByOwner(String owner, PageRequest pageRequest);
+}
@@ -0,0 +1,62 @@
+package example.cashcard;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+class CashCardPageQueriesImpl implements CashCardPageQueries {
+  private static final String SELECT_PAGE = """
+      SELECT id, amount, owner, version FROM cash_card
+      WHERE owner = :owner
+      ORDER BY %s
+      LIMIT :limit OFFSET :offset
+      """;
+  private static final String COUNT = "SELECT COUNT(*) FROM cash_card WHERE owner = :owner";
+
+  // Só estas propriedades podem ir para o ORDER BY; o nome da API ("amount") e o do CashCard ("amountInCents") valem os dois.
+  private static final Map<String, String> COLUMNS = Map.of(
+    "id", "id",
+    "amount", "amount",
+    "amountInCents", "amount",
+    "owner", "owner"
+  );
+
+  private final NamedParameterJdbcOperations jdbc;
+
+  CashCardPageQueriesImpl(NamedParameterJdbcOperations jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  @Override
+  public Page<CashCard> findPageByOwner(String owner, PageRequest pageRequest) {
+    MapSqlParameterSource parameters = new MapSqlParameterSource()
+      .addValue("owner", owner)
+      .addValue("limit", pageRequest.getPageSize())
+      .addValue("offset", pageRequest.getOffset());
+    String sql = SELECT_PAGE.formatted(orderBy(CashCardRepository.indexOrder(pageRequest.getSort())));
+    List<CashCard> content = jdbc.query(sql, parameters, CashCardRowMapper.INSTANCE);
+    //-- Como antes, o COUNT só roda quando a página sozinha não diz o total.
+    return PageableExecutionUtils.getPage(content, pageRequest, () -> jdbc.queryForObject(COUNT, parameters, Long.class));
+  }
+
+  private static String orderBy(Sort sort) {
+    return sort.stream()
+      .map(order -> column(order.getProperty()) + " " + order.getDirection().name())
+      .collect(Collectors.joining(", "));
+  }
+
+  private static String column(String property) {
+    String column = COLUMNS.get(property);
+    if (column == null) {
+      throw new IllegalArgumentException("Cannot sort cash cards by " + property);
+    }
+    return column;
+  }
+}
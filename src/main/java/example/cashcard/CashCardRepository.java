@@ -1,12 +1,88 @@
 package example.cashcard;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
-interface CashCardRepository extends CrudRepository<CashCard, Long>, PagingAndSortingRepository<CashCard, Long> {
+// As consultas que devolvem CashCard selecionam "id, amount, owner, version" e usam o CashCardRowMapper;
+// a página ordenada (findPageByOwner) está no CashCardPageQueriesImpl.
+interface CashCardRepository extends CrudRepository<CashCard, Long>, PagingAndSortingRepository<CashCard, Long>, CashCardPageQueries {
+  @Query(rowMapperClass = CashCardRowMapper.class, value = "SELECT id, amount, owner, version FROM cash_card WHERE id = :id AND owner = :owner")
   CashCard findByIdAndOwner(Long id, String owner);
-  Page<CashCard> findByOwner(String owner, PageRequest pageRequest);
+
   boolean existsByIdAndOwner(Long id, String owner);
+
+  // O índice (owner, amount, id) só entrega as linhas já ordenadas quando o ORDER BY começa pelo owner.
+  // Como o owner é fixo na consulta, prefixá-lo (e desempatar pelo id) não muda o resultado, só evita o sort.
+  // Na API a propriedade continua se chamando "amount"; no CashCard ela é amountInCents.
+  static Sort indexOrder(Sort apiSort) {
+    Sort requested = Sort.by(apiSort.stream()
+      .map(order -> order.getProperty().equals("amount") ? order.withProperty("amountInCents") : order)
+      .toList());
+    Sort.Direction direction = requested.stream()
+      .findFirst()
+      .map(Sort.Order::getDirection)
+      .orElse(Sort.Direction.ASC);
+
+    Sort indexOrder = Sort.by(direction, "owner").and(requested);
+    if (requested.getOrderFor("id") == null) {
+      indexOrder = indexOrder.and(Sort.by(direction, "id"));
+    }
+    return indexOrder;
+  }
+
+  // Paginação por keyset: sem OFFSET e sem COUNT(*), então a página 10.000 custa o mesmo que a primeira.
+  @Query(rowMapperClass = CashCardRowMapper.class, value = """
+      SELECT id, amount, owner, version FROM cash_card
+      WHERE owner = :owner
+      ORDER BY owner, amount, id
+      LIMIT :limit
+      """)
+  List<CashCard> findFirstSliceByOwner(String owner, int limit);
+
+  // Equivale a (amount, id) > (:amount, :id); o "amount >= :amount" deixa o banco começar a varredura direto no índice.
+  @Query(rowMapperClass = CashCardRowMapper.class, value = """
+      SELECT id, amount, owner, version FROM cash_card
+      WHERE owner = :owner
+        AND amount >= :amount
+        AND (amount > :amount OR id > :id)
+      ORDER BY owner, amount, id
+      LIMIT :limit
+      """)
+  List<CashCard> findSliceByOwnerAfter(String owner, long amount, Long id, int limit);
+
+  // Cursor forward-only sobre todos os cartões do owner, na ordem do índice; quem chama precisa fechar o Stream.
+  @Query(rowMapperClass = CashCardRowMapper.class, value = """
+      SELECT id, amount, owner, version FROM cash_card
+      WHERE owner = :owner
+      ORDER BY owner, amount, id
+      """)
+  Stream<CashCard> streamByOwner(String owner);
+
+  // Escritas em um único comando, já restritas ao owner. Cada uma devolve o cartão como estava antes
+  // (via OLD TABLE do H2), ou null quando nenhuma linha foi afetada: cartão inexistente ou de outro owner (404).
+  // O amount anterior é o que o CashCardWriter precisa para manter o resumo do owner sem reler o cartão, e a
+  // versão anterior, lida com a linha travada, diz em que ordem as escritas no cartão foram confirmadas.
+  @Query(rowMapperClass = CashCardRowMapper.class, value = """
+      SELECT id, amount, owner, version FROM OLD TABLE (
+        UPDATE cash_card SET amount = :amount, version = version + 1 WHERE id = :id AND owner = :owner
+      )
+      """)
+  CashCard updateAmountByIdAndOwner(Long id, String owner, long amount);
+
+  // Para PUT com If-Match: só grava se ninguém mudou o cartão desde a versão que o cliente leu.
+  @Query(rowMapperClass = CashCardRowMapper.class, value = """
+      SELECT id, amount, owner, version FROM OLD TABLE (
+        UPDATE cash_card SET amount = :amount, version = version + 1 WHERE id = :id AND owner = :owner AND version = :version
+      )
+      """)
+  CashCard updateAmountByIdAndOwnerAndVersion(Long id, String owner, Long version, long amount);
+
+  @Query(rowMapperClass = CashCardRowMapper.class,
+      value = "SELECT id, amount, owner, version FROM OLD TABLE (DELETE FROM cash_card WHERE id = :id AND owner = :owner)")
+  CashCard deleteByIdAndOwner(Long id, String owner);
 }
@@ -0,0 +1,9 @@
+package example.cashcard;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+// Corpo de POST /cashcards e PUT /cashcards/{id}, por exemplo {"amount": 123.45}. Como no CashCardBatchOperation,
+// o amount fica em centavos e é null quando falta no JSON (ou vem como null): quem recebe responde 400, em vez de
+// gravar um cartão de 0.00. Campos como id e owner, que o cliente não escolhe, são ignorados.
+record CashCardRequest(@JsonProperty("amount") @JsonDeserialize(using = CashCardAmount.Deserializer.class) Long amountInCents) {}
@@ -0,0 +1,17 @@
+package example.cashcard;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+// Monta o CashCard lendo as colunas pela posição, sem a conversão genérica (e reflexiva) do Spring Data JDBC.
+// Toda consulta que usa este mapper precisa selecionar exatamente "id, amount, owner, version", nessa ordem.
+final class CashCardRowMapper implements RowMapper<CashCard> {
+  static final CashCardRowMapper INSTANCE = new CashCardRowMapper();
+
+  @Override
+  public CashCard mapRow(ResultSet rs, int rowNum) throws SQLException {
+    return new CashCard(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getLong(4));
+  }
+}
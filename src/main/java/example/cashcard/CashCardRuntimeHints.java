@@ -0,0 +1,31 @@
+package example.cashcard;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+// O que o processamento AOT não descobre sozinho e uma imagem nativa (perfil Maven native) precisa saber de antemão.
+// Definições de bean, repositórios e a cadeia do SecurityConfig já saem prontas do process-aot; o HmacSHA256 dos
+// SignedTokens e o SecureRandom do BCrypt são provedores JCA que o native-image inclui quando os vê em uso.
+class CashCardRuntimeHints implements RuntimeHintsRegistrar {
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    //-- O spring.sql.init já registra os seus; estes são lidos direto pelo ReactiveConfig e pelo OwnerShardRebalancer.
+    hints.resources()
+      .registerPattern("schema.sql")
+      .registerPattern("data.sql");
+
+    //-- Instanciados por reflexão: o mapper pelo @Query(rowMapperClass = ...) do Spring Data JDBC, e os
+    //-- (de)serializadores pelo Jackson, a partir de @JsonSerialize/@JsonDeserialize no CashCard.
+    for (Class<?> type : new Class<?>[] { CashCardRowMapper.class, CashCardSerializer.class,
+        CashCardAmount.Serializer.class, CashCardAmount.Deserializer.class, CashCardPageQueriesImpl.class }) {
+      hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+    }
+
+    //-- Os corpos de requisição são lidos pelo construtor canônico dos records, com as anotações de cada componente.
+    new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), CashCard.class, CashCardRequest.class,
+      CashCardBatchOperation.class);
+  }
+}
@@ -0,0 +1,37 @@
+package example.cashcard;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+// Escreve o CashCard campo a campo no JsonGenerator, com os nomes já codificados, em vez do BeanSerializer
+// (que descobre as propriedades por reflexão e chama um serializador por campo). Listas, páginas e o export
+// usam o mesmo caminho, um cartão por vez. A saída é idêntica: {"id":99,"amount":123.45,"owner":"sarah1"}.
+final class CashCardSerializer extends StdSerializer<CashCard> {
+  private static final SerializedString ID = new SerializedString("id");
+  private static final SerializedString AMOUNT = new SerializedString("amount");
+  private static final SerializedString OWNER = new SerializedString("owner");
+
+  CashCardSerializer() {
+    super(CashCard.class);
+  }
+
+  @Override
+  public void serialize(CashCard cashCard, JsonGenerator generator, SerializerProvider provider) throws IOException {
+    generator.writeStartObject(cashCard);
+    generator.writeFieldName(ID);
+    if (cashCard.id() == null) {
+      generator.writeNull();
+    } else {
+      generator.writeNumber(cashCard.id());
+    }
+    generator.writeFieldName(AMOUNT);
+    generator.writeNumber(CashCardAmount.toPlainString(cashCard.amountInCents()));
+    generator.writeFieldName(OWNER);
+    generator.writeString(cashCard.owner());
+    generator.writeEndObject();
+  }
+}
@@ -0,0 +1,18 @@
+package example.cashcard;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// Resposta de GET /cashcards/summary: quantidade, soma, menor e maior amount dos cartões de um owner.
+// Valores em centavos, como o amount do CashCard, e no mesmo formato no JSON.
+record CashCardSummary(@Id String owner, @Column("CARD_COUNT") long count,
+    @JsonSerialize(using = CashCardAmount.Serializer.class) long total,
+    @Column("MIN_AMOUNT") @JsonSerialize(using = CashCardAmount.Serializer.class) Long min,
+    @Column("MAX_AMOUNT") @JsonSerialize(using = CashCardAmount.Serializer.class) Long max) {
+
+  static CashCardSummary empty(String owner) {
+    return new CashCardSummary(owner, 0, 0, null, null);
+  }
+}
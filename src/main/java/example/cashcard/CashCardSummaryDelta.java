@@ -0,0 +1,69 @@
+package example.cashcard;
+
+// O que uma transação mudou nos cartões de um owner, do jeito que o CashCardSummaryRepository.applyDelta precisa:
+// quantidade e soma (em centavos) como delta, e os extremos dos amounts que entraram e saíram. Com os extremos,
+// o menor e o maior do resumo só são relidos do índice quando o que saiu podia ser o menor ou o maior atual.
+final class CashCardSummaryDelta {
+  private long count;
+  private long total;
+  private Long lowestAdded;
+  private Long highestAdded;
+  private Long lowestRemoved;
+  private Long highestRemoved;
+
+  void added(long amount) {
+    count++;
+    total += amount;
+    enter(amount);
+  }
+
+  void replaced(long previousAmount, long amount) {
+    total += amount - previousAmount;
+    leave(previousAmount);
+    enter(amount);
+  }
+
+  void removed(long previousAmount) {
+    count--;
+    total -= previousAmount;
+    leave(previousAmount);
+  }
+
+  private void enter(long amount) {
+    lowestAdded = lowestAdded == null ? amount : Math.min(lowestAdded, amount);
+    highestAdded = highestAdded == null ? amount : Math.max(highestAdded, amount);
+  }
+
+  private void leave(long amount) {
+    lowestRemoved = lowestRemoved == null ? amount : Math.min(lowestRemoved, amount);
+    highestRemoved = highestRemoved == null ? amount : Math.max(highestRemoved, amount);
+  }
+
+  boolean isChanged() {
+    return lowestAdded != null || lowestRemoved != null;
+  }
+
+  long count() {
+    return count;
+  }
+
+  long total() {
+    return total;
+  }
+
+  Long lowestAdded() {
+    return lowestAdded;
+  }
+
+  Long highestAdded() {
+    return highestAdded;
+  }
+
+  Long lowestRemoved() {
+    return lowestRemoved;
+  }
+
+  Long highestRemoved() {
+    return highestRemoved;
+  }
+}
@@ -0,0 +1,80 @@
+package example.cashcard;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.Repository;
+
+interface CashCardSummaryRepository extends Repository<CashCardSummary, String> {
+  Optional<CashCardSummary> findByOwner(String owner);
+
+  // Soma o delta de quantidade e total no resumo do owner (criando a linha se preciso) e ajusta menor e maior sem
+  // olhar os cartões, a não ser que um amount que saiu fosse o menor (ou o maior) atual: só então ele é relido com
+  // uma busca de uma linha no índice (owner, amount, id). O ORDER BY começa por owner de propósito; só assim o H2
+  // usa a ordem do índice e para na primeira linha, em vez de ler todos os cartões do owner (como faria MIN/MAX).
+  // Precisa rodar depois da escrita em cash_card, na mesma transação. Duas primeiras escritas concorrentes de um
+  // owner sem resumo tentam inserir a mesma linha e a segunda falha com DuplicateKeyException (ver CashCardWriter).
+  default void applyDelta(String owner, CashCardSummaryDelta delta) {
+    applyDelta(owner, delta.count(), delta.total(),
+      delta.lowestAdded(), delta.highestAdded(), delta.lowestRemoved(), delta.highestRemoved());
+  }
+
+  @Modifying
+  @Query("""
+      MERGE INTO cash_card_summary s
+      USING (VALUES (CAST(:owner AS VARCHAR(256)))) v(owner) ON s.owner = v.owner
+      WHEN MATCHED THEN UPDATE SET
+        card_count = s.card_count + :count,
+        total = s.total + :total,
+        min_amount = CASE
+          WHEN s.min_amount IS NULL OR CAST(:lowestRemoved AS BIGINT) <= s.min_amount
+            THEN (SELECT amount FROM cash_card WHERE owner = v.owner ORDER BY owner, amount LIMIT 1)
+          ELSE LEAST(s.min_amount, COALESCE(CAST(:lowestAdded AS BIGINT), s.min_amount))
+        END,
+        max_amount = CASE
+          WHEN s.max_amount IS NULL OR CAST(:highestRemoved AS BIGINT) >= s.max_amount
+            THEN (SELECT amount FROM cash_card WHERE owner = v.owner ORDER BY owner DESC, amount DESC LIMIT 1)
+          ELSE GREATEST(s.max_amount, COALESCE(CAST(:highestAdded AS BIGINT), s.max_amount))
+        END
+      WHEN NOT MATCHED THEN INSERT (owner, card_count, total, min_amount, max_amount) VALUES (
+        v.owner, :count, :total,
+        (SELECT amount FROM cash_card WHERE owner = v.owner ORDER BY owner, amount LIMIT 1),
+        (SELECT amount FROM cash_card WHERE owner = v.owner ORDER BY owner DESC, amount DESC LIMIT 1))
+      """)
+  int applyDelta(String owner, long count, long total, Long lowestAdded, Long highestAdded, Long lowestRemoved,
+      Long highestRemoved);
+
+  // Owners cujo resumo não bate com o que está em cash_card (inclusive resumo faltando ou sobrando).
+  @Query("""
+      SELECT c.owner FROM (
+        SELECT owner, COUNT(*) AS card_count, SUM(amount) AS total, MIN(amount) AS min_amount, MAX(amount) AS max_amount
+        FROM cash_card GROUP BY owner
+      ) c
+      LEFT JOIN cash_card_summary s ON s.owner = c.owner
+      WHERE s.owner IS NULL
+        OR s.card_count <> c.card_count
+        OR s.total <> c.total
+        OR s.min_amount IS DISTINCT FROM c.min_amount
+        OR s.max_amount IS DISTINCT FROM c.max_amount
+      UNION
+      SELECT s.owner FROM cash_card_summary s
+      WHERE (s.card_count <> 0 OR s.total <> 0 OR s.min_amount IS NOT NULL OR s.max_amount IS NOT NULL)
+        AND NOT EXISTS (SELECT 1 FROM cash_card c WHERE c.owner = s.owner)
+      """)
+  List<String> findOwnersOutOfSync();
+
+  // Trava a linha do resumo antes de recalcular: uma escrita concorrente ou já terminou (e o recálculo a vê)
+  // ou fica esperando e aplica o seu delta por cima do valor recalculado.
+  @Query("SELECT owner FROM cash_card_summary WHERE owner = :owner FOR UPDATE")
+  Optional<String> lockByOwner(String owner);
+
+  @Modifying
+  @Query("""
+      MERGE INTO cash_card_summary KEY (owner)
+      SELECT CAST(:owner AS VARCHAR(256)), COUNT(*), COALESCE(SUM(amount), 0), MIN(amount), MAX(amount)
+      FROM cash_card WHERE owner = :owner
+      """)
+  int recompute(String owner);
+}
@@ -0,0 +1,64 @@
+package example.cashcard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Rede de segurança do cash_card_summary: compara cada resumo com o que está em cash_card e recalcula
+// os que divergiram (escritas feitas fora da aplicação, por exemplo). Roda agendado, fora do horário de pico,
+// porque a comparação agrupa a tabela inteira; o recálculo em si é por owner. No perfil sharded, repete tudo em cada shard.
+@Component
+class CashCardSummaryVerifier {
+  private static final Logger log = LoggerFactory.getLogger(CashCardSummaryVerifier.class);
+
+  private final CashCardSummaryRepository cashCardSummaryRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final OwnerShards ownerShards;
+
+  CashCardSummaryVerifier(CashCardSummaryRepository cashCardSummaryRepository, TransactionTemplate transactionTemplate,
+      ObjectProvider<OwnerShards> ownerShards) {
+    this.cashCardSummaryRepository = cashCardSummaryRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.ownerShards = ownerShards.getIfAvailable();
+  }
+
+  // Devolve os owners que precisaram ser recalculados.
+  @Scheduled(cron = "${cashcard.summary.verify-cron:0 30 3 * * *}")
+  List<String> verifyAndRepair() {
+    List<String> outOfSync = new ArrayList<>();
+    if (ownerShards == null) {
+      outOfSync.addAll(verifyAndRepairShard());
+    } else {
+      for (int shard = 0; shard < ownerShards.size(); shard++) {
+        try (OwnerShards.Binding binding = ownerShards.bindShard(shard)) {
+          outOfSync.addAll(verifyAndRepairShard());
+        }
+      }
+    }
+    if (!outOfSync.isEmpty()) {
+      log.warn("Rebuilt cash card summaries of {} owner(s) that had drifted: {}", outOfSync.size(), outOfSync);
+    }
+    return outOfSync;
+  }
+
+  private List<String> verifyAndRepairShard() {
+    List<String> outOfSync = cashCardSummaryRepository.findOwnersOutOfSync();
+    for (String owner : outOfSync) {
+      rebuild(owner);
+    }
+    return outOfSync;
+  }
+
+  void rebuild(String owner) {
+    transactionTemplate.executeWithoutResult(status -> {
+      cashCardSummaryRepository.lockByOwner(owner);
+      cashCardSummaryRepository.recompute(owner);
+    });
+  }
+}
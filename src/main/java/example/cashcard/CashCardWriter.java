@@ -0,0 +1,108 @@
+package example.cashcard;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Escritas individuais das rotas POST, PUT e DELETE. Cada uma grava o cartão e ajusta o resumo do owner
+// (cash_card_summary) na mesma transação; o CashCardCache só é invalidado, e a mutação só vai para o
+// CashCardMutationLog, depois do commit. A geração do owner no CashCardListETags avança antes e depois.
+@Component
+class CashCardWriter {
+  private final CashCardRepository cashCardRepository;
+  private final CashCardSummaryRepository cashCardSummaryRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final CashCardCache cashCardCache;
+  private final CashCardMutationLog cashCardMutationLog;
+  private final CashCardListETags cashCardListETags;
+
+  CashCardWriter(CashCardRepository cashCardRepository, CashCardSummaryRepository cashCardSummaryRepository,
+      TransactionTemplate transactionTemplate, CashCardCache cashCardCache, CashCardMutationLog cashCardMutationLog,
+      CashCardListETags cashCardListETags) {
+    this.cashCardRepository = cashCardRepository;
+    this.cashCardSummaryRepository = cashCardSummaryRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.cashCardCache = cashCardCache;
+    this.cashCardMutationLog = cashCardMutationLog;
+    this.cashCardListETags = cashCardListETags;
+  }
+
+  CashCard create(String owner, long amount) {
+    cashCardListETags.advance(owner);
+    CashCard savedCashCard = inTransaction(transactionTemplate, status -> {
+      CashCard saved = cashCardRepository.save(CashCard.ofCents(null, amount, owner));
+      CashCardSummaryDelta delta = new CashCardSummaryDelta();
+      delta.added(amount);
+      cashCardSummaryRepository.applyDelta(owner, delta);
+      return saved;
+    });
+    //-- Um GET anterior a este id pode ter deixado um 404 no cache.
+    cashCardCache.invalidate(savedCashCard.id(), owner);
+    cashCardListETags.advance(owner);
+    cashCardMutationLog.append(CashCardMutation.now(CashCardMutation.Type.CREATE, savedCashCard.id(), savedCashCard.version(), owner, amount));
+    return savedCashCard;
+  }
+
+  // false quando o cartão não existe ou é de outro owner.
+  boolean update(Long id, String owner, long amount) {
+    cashCardListETags.advance(owner);
+    CashCard previous = inTransaction(transactionTemplate,
+      status -> replaced(owner, cashCardRepository.updateAmountByIdAndOwner(id, owner, amount), amount));
+    return afterWrite(previous, CashCardMutation.Type.UPDATE, owner, amount);
+  }
+
+  // false também quando a versão não é mais a esperada; quem chama decide entre 404 e 412.
+  boolean update(Long id, String owner, Long expectedVersion, long amount) {
+    cashCardListETags.advance(owner);
+    CashCard previous = inTransaction(transactionTemplate,
+      status -> replaced(owner, cashCardRepository.updateAmountByIdAndOwnerAndVersion(id, owner, expectedVersion, amount), amount));
+    return afterWrite(previous, CashCardMutation.Type.UPDATE, owner, amount);
+  }
+
+  boolean delete(Long id, String owner) {
+    cashCardListETags.advance(owner);
+    CashCard deleted = inTransaction(transactionTemplate, status -> {
+      CashCard previous = cashCardRepository.deleteByIdAndOwner(id, owner);
+      if (previous != null) {
+        CashCardSummaryDelta delta = new CashCardSummaryDelta();
+        delta.removed(previous.amountInCents());
+        cashCardSummaryRepository.applyDelta(owner, delta);
+      }
+      return previous;
+    });
+    return deleted != null && afterWrite(deleted, CashCardMutation.Type.DELETE, owner, deleted.amountInCents());
+  }
+
+  // Devolve o cartão anterior, ou null quando nada foi gravado.
+  private CashCard replaced(String owner, CashCard previous, long amount) {
+    if (previous != null) {
+      CashCardSummaryDelta delta = new CashCardSummaryDelta();
+      delta.replaced(previous.amountInCents(), amount);
+      cashCardSummaryRepository.applyDelta(owner, delta);
+    }
+    return previous;
+  }
+
+  // Roda a escrita e o ajuste do resumo numa transação, repetida uma vez se a linha do resumo já tiver sido criada
+  // por outra transação: duas primeiras escritas concorrentes de um owner novo tentam inserir a mesma linha em
+  // cash_card_summary, e a que perde recebe DuplicateKeyException. Com a linha já lá, a repetição só soma o delta.
+  static <T> T inTransaction(TransactionTemplate transactionTemplate, TransactionCallback<T> action) {
+    try {
+      return transactionTemplate.execute(action);
+    } catch (DuplicateKeyException e) {
+      return transactionTemplate.execute(action);
+    }
+  }
+
+  //-- Toda escrita sobe a versão em um: o UPDATE deixa a anterior + 1, e o DELETE registra a anterior + 1 como a última.
+  private boolean afterWrite(CashCard previous, CashCardMutation.Type type, String owner, long amount) {
+    if (previous == null) {
+      return false;
+    }
+    cashCardCache.invalidate(previous.id(), owner);
+    cashCardListETags.advance(owner);
+    cashCardMutationLog.append(CashCardMutation.now(type, previous.id(), previous.version() + 1, owner, amount));
+    return true;
+  }
+}
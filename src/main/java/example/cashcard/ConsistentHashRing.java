@@ -0,0 +1,68 @@
+package example.cashcard;
+
+import java.util.Arrays;
+
+// Anel de hash consistente entre owners e shards. Cada shard ocupa VIRTUAL_NODES pontos do anel, e o owner vai
+// para o primeiro ponto igual ou depois do seu hash. Os pontos dependem só do número do shard, então o mapa é o
+// mesmo em todo processo e a cada reinício; ao passar de N para N + 1 shards, só os owners que caem nos pontos novos
+// mudam de lugar, e todos vão para o shard novo (cerca de 1/(N + 1) deles).
+final class ConsistentHashRing {
+  private static final int VIRTUAL_NODES = 160;
+
+  private final int shardCount;
+  private final long[] points;
+  private final int[] shards;
+
+  ConsistentHashRing(int shardCount) {
+    if (shardCount < 1) {
+      throw new IllegalArgumentException("at least one shard is required");
+    }
+    this.shardCount = shardCount;
+    long[] entries = new long[shardCount * VIRTUAL_NODES];
+    int[] owners = new int[entries.length];
+    //-- Ordena por ponto; num empate (improvável), o shard de número menor fica com o ponto nos dois anéis.
+    Integer[] order = new Integer[entries.length];
+    for (int shard = 0; shard < shardCount; shard++) {
+      for (int node = 0; node < VIRTUAL_NODES; node++) {
+        int i = shard * VIRTUAL_NODES + node;
+        entries[i] = hash("shard-" + shard + "#" + node);
+        order[i] = i;
+      }
+    }
+    Arrays.sort(order, (a, b) -> entries[a] != entries[b] ? Long.compare(entries[a], entries[b]) : Integer.compare(a, b));
+    this.points = new long[entries.length];
+    this.shards = owners;
+    for (int i = 0; i < order.length; i++) {
+      points[i] = entries[order[i]];
+      owners[i] = order[i] / VIRTUAL_NODES;
+    }
+  }
+
+  int shardCount() {
+    return shardCount;
+  }
+
+  int shardFor(String owner) {
+    int i = Arrays.binarySearch(points, hash(owner));
+    if (i < 0) {
+      i = -i - 1;
+    }
+    return shards[i == points.length ? 0 : i];
+  }
+
+  // FNV-1a de 64 bits sobre os chars, seguido do finalizador do MurmurHash3 para espalhar bem chaves parecidas
+  // ("owner1", "owner2", ...). Não usa String.hashCode, que tem só 32 bits e agrupa esses prefixos.
+  static long hash(String key) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      h ^= key.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
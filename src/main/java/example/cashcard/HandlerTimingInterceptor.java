@@ -0,0 +1,44 @@
+package example.cashcard;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Mede só o método do controller (cashcard.handler), sem os filtros do Spring Security que o http.server.requests inclui.
+// Requisições recusadas pela segurança (401/403) nunca chegam aqui; elas aparecem só no http.server.requests.
+class HandlerTimingInterceptor implements HandlerInterceptor {
+  private static final String START = HandlerTimingInterceptor.class.getName() + ".start";
+
+  private final MeterRegistry meterRegistry;
+
+  HandlerTimingInterceptor(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (handler instanceof HandlerMethod) {
+      request.setAttribute(START, Timer.start(meterRegistry));
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    if (!(handler instanceof HandlerMethod handlerMethod) || !(request.getAttribute(START) instanceof Timer.Sample sample)) {
+      return;
+    }
+    HttpStatus.Series series = HttpStatus.Series.resolve(response.getStatus());
+    sample.stop(Timer.builder("cashcard.handler")
+      .tag("handler", handlerMethod.getMethod().getName())
+      .tag("status", String.valueOf(response.getStatus()))
+      .tag("outcome", series == null ? "UNKNOWN" : series.name())
+      .tag("exception", ex == null ? "none" : ex.getClass().getSimpleName())
+      .register(meterRegistry));
+  }
+}
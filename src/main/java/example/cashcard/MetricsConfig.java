@@ -0,0 +1,67 @@
+package example.cashcard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Métricas que o Spring Boot não publica sozinho. As de requisição HTTP, autenticação, repositório e pool
+// de conexões vêm da autoconfiguração; os percentis de cada uma estão no application.properties.
+@Configuration(proxyBeanMethods = false)
+class MetricsConfig {
+
+  @Bean
+  MeterBinder cashCardCacheMetrics(CashCardCache cashCardCache) {
+    return registry -> CaffeineCacheMetrics.monitor(registry, cashCardCache.nativeCache(), "cashcards");
+  }
+
+  //-- Mesmos nomes do CaffeineCacheMetrics; os acertos e erros vêm do AuthenticationCache porque
+  //-- uma entrada presente com outra senha conta como erro.
+  @Bean
+  MeterBinder authenticationCacheMetrics(AuthenticationCache authenticationCache) {
+    return registry -> {
+      FunctionCounter.builder("cache.gets", authenticationCache, AuthenticationCache::hitCount)
+        .tags("cache", "authentications", "result", "hit")
+        .register(registry);
+      FunctionCounter.builder("cache.gets", authenticationCache, AuthenticationCache::missCount)
+        .tags("cache", "authentications", "result", "miss")
+        .register(registry);
+      Gauge.builder("cache.size", authenticationCache, AuthenticationCache::size)
+        .tags("cache", "authentications")
+        .register(registry);
+    };
+  }
+
+  @Bean
+  MeterBinder cashCardMutationLogMetrics(CashCardMutationLog cashCardMutationLog) {
+    return registry -> {
+      Gauge.builder("cashcard.audit.queue.depth", cashCardMutationLog, CashCardMutationLog::queueDepth)
+        .register(registry);
+      FunctionCounter.builder("cashcard.audit.written", cashCardMutationLog, CashCardMutationLog::writtenCount)
+        .register(registry);
+      //-- dropped: mutações que não entraram no log; backpressure: escritas que tiveram de esperar a fila (overflow=wait).
+      FunctionCounter.builder("cashcard.audit.dropped", cashCardMutationLog, CashCardMutationLog::droppedCount)
+        .register(registry);
+      FunctionCounter.builder("cashcard.audit.backpressure", cashCardMutationLog, CashCardMutationLog::backpressureCount)
+        .register(registry);
+    };
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  WebMvcConfigurer handlerMetrics(MeterRegistry meterRegistry) {
+    return new WebMvcConfigurer() {
+      @Override
+      public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerTimingInterceptor(meterRegistry)).addPathPatterns("/cashcards/**");
+      }
+    };
+  }
+}
@@ -0,0 +1,77 @@
+package example.cashcard;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Token bucket por owner, com limites separados para leituras e escritas. Cada bucket é um único AtomicLong no formato
+// GCRA: guarda o instante teórico em que o bucket volta a ficar cheio, e uma requisição só avança esse instante com
+// compareAndSet. Não há lock nem timer por owner; owners diferentes nunca disputam o mesmo valor, e os buckets ficam
+// num cache do Caffeine, que despeja os owners parados há mais de idle-time.
+class OwnerRateLimiter {
+
+  enum Kind {
+    READ,
+    WRITE
+  }
+
+  // burst requisições seguidas, depois uma a cada 1/requestsPerSecond segundos.
+  record Limit(double requestsPerSecond, int burst) {
+    long intervalNanos() {
+      return (long) (1e9 / requestsPerSecond);
+    }
+  }
+
+  private final Cache<String, Buckets> buckets;
+  private final long readInterval;
+  private final long readTolerance;
+  private final long writeInterval;
+  private final long writeTolerance;
+  private final LongSupplier nanoTime;
+
+  OwnerRateLimiter(Limit read, Limit write, long maximumOwners, Duration idleTime) {
+    this(read, write, maximumOwners, idleTime, System::nanoTime);
+  }
+
+  OwnerRateLimiter(Limit read, Limit write, long maximumOwners, Duration idleTime, LongSupplier nanoTime) {
+    this.buckets = Caffeine.newBuilder()
+      .maximumSize(maximumOwners)
+      .expireAfterAccess(idleTime)
+      .build();
+    this.readInterval = read.intervalNanos();
+    this.readTolerance = (read.burst() - 1) * readInterval;
+    this.writeInterval = write.intervalNanos();
+    this.writeTolerance = (write.burst() - 1) * writeInterval;
+    this.nanoTime = nanoTime;
+  }
+
+  // 0 quando a requisição pode seguir; senão, quantos nanossegundos faltam para o owner ter um token desse tipo.
+  long tryAcquire(String owner, Kind kind) {
+    Buckets ownerBuckets = buckets.get(owner, key -> new Buckets());
+    AtomicLong bucket = kind == Kind.READ ? ownerBuckets.read : ownerBuckets.write;
+    long interval = kind == Kind.READ ? readInterval : writeInterval;
+    long tolerance = kind == Kind.READ ? readTolerance : writeTolerance;
+
+    long now = nanoTime.getAsLong();
+    while (true) {
+      long full = bucket.get();
+      long start = Math.max(full, now);
+      long wait = start - now - tolerance;
+      if (wait > 0) {
+        return wait;
+      }
+      if (bucket.compareAndSet(full, start + interval)) {
+        return 0;
+      }
+    }
+  }
+
+  //-- Long.MIN_VALUE: bucket cheio, seja qual for o valor do nanoTime.
+  private static final class Buckets {
+    final AtomicLong read = new AtomicLong(Long.MIN_VALUE);
+    final AtomicLong write = new AtomicLong(Long.MIN_VALUE);
+  }
+}
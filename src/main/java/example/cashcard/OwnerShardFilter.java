@@ -0,0 +1,45 @@
+package example.cashcard;
+
+import java.io.IOException;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Perfil sharded: liga a requisição ao shard do owner autenticado, do controller até o commit. Fica depois da
+// autorização, então só vê requisições que vão chegar ao controller. Não é um @Bean, como o RateLimitingFilter.
+class OwnerShardFilter extends OncePerRequestFilter {
+  private static final RequestMatcher CASH_CARDS = new AntPathRequestMatcher("/cashcards/**");
+
+  private final OwnerShards ownerShards;
+
+  OwnerShardFilter(OwnerShards ownerShards) {
+    this.ownerShards = ownerShards;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !CASH_CARDS.matches(request);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    try (OwnerShards.Binding binding = ownerShards.bindOwner(authentication.getName())) {
+      filterChain.doFilter(request, response);
+    }
+  }
+}
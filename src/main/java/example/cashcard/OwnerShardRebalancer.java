@@ -0,0 +1,117 @@
+package example.cashcard;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Prepara os shards na subida e move owners entre eles quando um shard é acrescentado.
+//
+// Ids: o schema.sql é o mesmo em todo shard, mas o IDENTITY do shard n começa em n * 2^48 + 1000; os ids gerados
+// nunca se repetem entre shards, e um cartão movido leva o seu id junto. O data.sql só roda (no shard 0) quando
+// todos estão vazios; a primeira rebalance já leva cada owner semeado ao seu shard.
+//
+// Mover um owner: copia os cartões (MERGE por id) e recalcula o resumo no destino, depois apaga na origem. Uma queda
+// no meio deixa o owner nos dois shards; a rebalance da subida seguinte o encontra fora do lugar e termina a cópia.
+class OwnerShardRebalancer implements SmartInitializingSingleton {
+  private static final Logger log = LoggerFactory.getLogger(OwnerShardRebalancer.class);
+  private static final long SHARD_ID_RANGE = 1L << 48;
+  private static final long FIRST_GENERATED_ID = 1000;
+
+  private final OwnerShards ownerShards;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final CashCardSummaryRepository cashCardSummaryRepository;
+
+  OwnerShardRebalancer(OwnerShards ownerShards, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      CashCardSummaryRepository cashCardSummaryRepository) {
+    this.ownerShards = ownerShards;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.cashCardSummaryRepository = cashCardSummaryRepository;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    boolean empty = true;
+    for (int shard = 0; shard < ownerShards.size(); shard++) {
+      empty &= initialize(shard);
+    }
+    if (empty) {
+      new ResourceDatabasePopulator(new ClassPathResource("data.sql")).execute(ownerShards.dataSource(0));
+    }
+    rebalance();
+  }
+
+  // Acrescenta um shard (um banco vazio ou já com o schema) e leva para ele os owners que o anel passa a lhe dar.
+  // As requisições continuam sendo atendidas; só as de um owner em movimento esperam a cópia dele.
+  synchronized int addShard(DataSource dataSource) {
+    int shard = ownerShards.add(dataSource);
+    initialize(shard);
+    rebalance();
+    return shard;
+  }
+
+  // Devolve quantos owners mudaram de shard.
+  synchronized int rebalance() {
+    Map<String, Integer> plan = ownerShards.beginRebalance(shard -> {
+      try (OwnerShards.Binding binding = ownerShards.bindShard(shard)) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT owner FROM cash_card", String.class);
+      }
+    });
+    for (String owner : plan.keySet()) {
+      ownerShards.moveOwner(owner, this::move);
+    }
+    if (!plan.isEmpty()) {
+      log.info("Moved {} owner(s) across {} shard(s)", plan.size(), ownerShards.size());
+    }
+    return plan.size();
+  }
+
+  private void move(String owner, int from, int to) {
+    List<CashCard> cashCards;
+    try (OwnerShards.Binding binding = ownerShards.bindShard(from)) {
+      cashCards = jdbcTemplate.query("SELECT id, amount, owner, version FROM cash_card WHERE owner = ?",
+        CashCardRowMapper.INSTANCE, owner);
+    }
+    try (OwnerShards.Binding binding = ownerShards.bindShard(to)) {
+      transactionTemplate.executeWithoutResult(status -> {
+        jdbcTemplate.batchUpdate("MERGE INTO cash_card (id, amount, owner, version) KEY (id) VALUES (?, ?, ?, ?)",
+          cashCards, cashCards.size(), (ps, cashCard) -> {
+            ps.setLong(1, cashCard.id());
+            ps.setLong(2, cashCard.amountInCents());
+            ps.setString(3, cashCard.owner());
+            ps.setLong(4, cashCard.version());
+          });
+        cashCardSummaryRepository.recompute(owner);
+      });
+    }
+    try (OwnerShards.Binding binding = ownerShards.bindShard(from)) {
+      transactionTemplate.executeWithoutResult(status -> {
+        jdbcTemplate.update("DELETE FROM cash_card WHERE owner = ?", owner);
+        jdbcTemplate.update("DELETE FROM cash_card_summary WHERE owner = ?", owner);
+      });
+    }
+  }
+
+  // Cria as tabelas e posiciona o IDENTITY na faixa do shard. Devolve se o shard está sem cartões.
+  private boolean initialize(int shard) {
+    DataSource dataSource = ownerShards.dataSource(shard);
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    JdbcTemplate shardJdbcTemplate = new JdbcTemplate(dataSource);
+    long first = shard * SHARD_ID_RANGE + FIRST_GENERATED_ID;
+    long next = shardJdbcTemplate.queryForObject("SELECT COALESCE(MAX(id) + 1, ?) FROM cash_card WHERE id >= ? AND id < ?",
+      Long.class, first, first, (shard + 1) * SHARD_ID_RANGE);
+    //-- O H2 não aceita parâmetro em DDL; next é um long calculado aqui.
+    shardJdbcTemplate.execute("ALTER TABLE cash_card ALTER COLUMN id RESTART WITH " + next);
+    return shardJdbcTemplate.queryForObject("SELECT COUNT(*) FROM cash_card", Long.class) == 0;
+  }
+}
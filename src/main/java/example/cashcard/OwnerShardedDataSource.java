@@ -0,0 +1,26 @@
+package example.cashcard;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+// DataSource da aplicação no perfil sharded: cada conexão vem do shard ligado à thread (OwnerShards.current()).
+// Como as transações pegam a conexão no início, o shard precisa estar ligado antes do TransactionTemplate rodar.
+class OwnerShardedDataSource extends AbstractDataSource {
+  private final OwnerShards ownerShards;
+
+  OwnerShardedDataSource(OwnerShards ownerShards) {
+    this.ownerShards = ownerShards;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return ownerShards.current().getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return ownerShards.current().getConnection(username, password);
+  }
+}
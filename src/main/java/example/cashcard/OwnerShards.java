@@ -0,0 +1,191 @@
+package example.cashcard;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+import javax.sql.DataSource;
+
+// Os bancos do perfil sharded e a regra que leva cada owner a um deles. Quem acessa o banco liga a thread a um shard
+// (bindOwner numa requisição, bindShard em tarefas que percorrem todos) e o OwnerShardedDataSource entrega conexões
+// desse shard; o código dos repositórios não muda.
+//
+// Rebalanceamento online: bindOwner segura, enquanto a thread está ligada, a trava de leitura de uma das STRIPES
+// travas do owner, e mover um owner segura a de escrita. Para trocar de anel, beginRebalance lista, sem travar
+// ninguém, os owners que o novo anel tira do lugar; depois para tudo só pelo instante de trocar o anel e deixar esses
+// owners em pending, ainda apontando para onde os dados estão. Daí em diante cada owner é movido sozinho, e só as
+// requisições dele esperam.
+class OwnerShards implements AutoCloseable {
+  private static final int STRIPES = 64;
+
+  private final List<DataSource> dataSources;
+  private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[STRIPES];
+  //-- Owners cujos dados ainda estão num shard diferente do que o anel indica: owner -> shard onde estão.
+  private final Map<String, Integer> pending = new ConcurrentHashMap<>();
+  private final ThreadLocal<Integer> bound = new ThreadLocal<>();
+  private volatile ConsistentHashRing ring;
+  //-- Enquanto beginRebalance lista os owners: o anel que vem aí, e os owners atendidos nesse meio tempo que ele muda
+  //-- de shard. A listagem pode não ver a primeira escrita de um deles; a troca do anel os acrescenta ao plano.
+  private volatile ConsistentHashRing planned;
+  private final Set<String> boundWhilePlanning = ConcurrentHashMap.newKeySet();
+
+  OwnerShards(List<DataSource> dataSources) {
+    this.dataSources = new CopyOnWriteArrayList<>(dataSources);
+    this.ring = new ConsistentHashRing(dataSources.size());
+    for (int i = 0; i < STRIPES; i++) {
+      locks[i] = new ReentrantReadWriteLock();
+    }
+  }
+
+  int size() {
+    return dataSources.size();
+  }
+
+  DataSource dataSource(int shard) {
+    return dataSources.get(shard);
+  }
+
+  int shardFor(String owner) {
+    Integer movingFrom = pending.get(owner);
+    return movingFrom != null ? movingFrom : ring.shardFor(owner);
+  }
+
+  // O shard da thread atual; sem um, falha em vez de escolher um shard qualquer e gravar no lugar errado.
+  DataSource current() {
+    Integer shard = bound.get();
+    if (shard == null) {
+      throw new IllegalStateException("No shard bound to this thread; use OwnerShards.bindOwner or bindShard");
+    }
+    return dataSources.get(shard);
+  }
+
+  Binding bindOwner(String owner) {
+    ReentrantReadWriteLock.ReadLock lock = lockFor(owner).readLock();
+    lock.lock();
+    try {
+      int shard = shardFor(owner);
+      ConsistentHashRing next = planned;
+      if (next != null && next.shardFor(owner) != shard) {
+        boundWhilePlanning.add(owner);
+      }
+      return bind(shard, lock::unlock);
+    } catch (RuntimeException e) {
+      lock.unlock();
+      throw e;
+    }
+  }
+
+  Binding bindShard(int shard) {
+    return bind(shard, () -> { });
+  }
+
+  private Binding bind(int shard, Runnable release) {
+    Integer previous = bound.get();
+    bound.set(shard);
+    return () -> {
+      if (previous == null) {
+        bound.remove();
+      } else {
+        bound.set(previous);
+      }
+      release.run();
+    };
+  }
+
+  int add(DataSource dataSource) {
+    dataSources.add(dataSource);
+    return dataSources.size() - 1;
+  }
+
+  // Passa a rotear pelo anel de todos os shards atuais. ownersOn lista os owners com dados em cada shard; os que
+  // estão fora do lugar ficam em pending até moveOwner. Devolve esse plano (owner -> shard onde os dados estão).
+  // ownersOn roda sem trava nenhuma; as requisições só param nas duas trocas curtas, que não tocam o banco.
+  Map<String, Integer> beginRebalance(IntFunction<List<String>> ownersOn) {
+    ConsistentHashRing next = new ConsistentHashRing(dataSources.size());
+    //-- Depois desta barreira nenhuma requisição de antes segue em andamento, e todas as novas já veem o planned.
+    withAllLocks(() -> planned = next);
+    try {
+      Map<String, Integer> plan = new HashMap<>();
+      for (int shard = 0; shard < next.shardCount(); shard++) {
+        for (String owner : ownersOn.apply(shard)) {
+          if (next.shardFor(owner) != shard) {
+            plan.put(owner, shard);
+          }
+        }
+      }
+      withAllLocks(() -> {
+        for (String owner : boundWhilePlanning) {
+          //-- Ainda pelo anel antigo: onde as escritas desse owner foram parar.
+          int at = shardFor(owner);
+          if (next.shardFor(owner) != at) {
+            plan.putIfAbsent(owner, at);
+          }
+        }
+        pending.putAll(plan);
+        ring = next;
+        planned = null;
+      });
+      return plan;
+    } finally {
+      planned = null;
+      boundWhilePlanning.clear();
+    }
+  }
+
+  private void withAllLocks(Runnable action) {
+    for (ReentrantReadWriteLock lock : locks) {
+      lock.writeLock().lock();
+    }
+    try {
+      action.run();
+    } finally {
+      for (ReentrantReadWriteLock lock : locks) {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  // Move um owner de pending para o shard que o anel indica, com as requisições dele paradas durante a cópia.
+  void moveOwner(String owner, Mover mover) {
+    ReentrantReadWriteLock.WriteLock lock = lockFor(owner).writeLock();
+    lock.lock();
+    try {
+      Integer from = pending.get(owner);
+      if (from != null) {
+        mover.move(owner, from, ring.shardFor(owner));
+        pending.remove(owner);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Fecha os pools dos shards no fim do contexto (não são beans, então o Spring não os fecha sozinho).
+  @Override
+  public void close() throws Exception {
+    for (DataSource dataSource : dataSources) {
+      if (dataSource instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+
+  private ReentrantReadWriteLock lockFor(String owner) {
+    return locks[(int) (ConsistentHashRing.hash(owner) & (STRIPES - 1))];
+  }
+
+  // Desfaz a ligação (e solta a trava do owner) no fim de um try-with-resources.
+  interface Binding extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  interface Mover {
+    void move(String owner, int from, int to);
+  }
+}
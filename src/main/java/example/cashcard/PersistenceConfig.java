@@ -0,0 +1,71 @@
+package example.cashcard;
+
+import java.sql.SQLException;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.h2.tools.Server;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.jdbc.repository.config.EnableJdbcRepositories;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Com Spring Data JDBC e R2DBC no classpath, nenhum dos dois consegue decidir sozinho de quem é cada repositório
+// (o CashCard não tem anotação específica de nenhum), então cada um recebe explicitamente o seu.
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({ DataSourceProperties.class, SqlInitializationProperties.class })
+@EnableJdbcRepositories(includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = { CashCardRepository.class, CashCardSummaryRepository.class }))
+@EnableR2dbcRepositories(includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveCashCardRepository.class))
+class PersistenceConfig {
+
+  // O Spring Boot desliga o DataSource automático quando existe um ConnectionFactory do R2DBC,
+  // mas a pilha servlet (e o cache, o batch e o export) continua sobre JDBC; então ele é declarado aqui,
+  // ainda lendo spring.datasource.* e spring.datasource.hikari.*.
+  //-- O Optional<Server> só ordena a criação: no perfil h2-server o pool não pode abrir conexões antes de o servidor subir.
+  //-- No perfil sharded quem declara o DataSource é o ShardingConfig.
+  @Bean
+  @ConditionalOnProperty(name = "cashcard.sharding.enabled", havingValue = "false", matchIfMissing = true)
+  @ConfigurationProperties("spring.datasource.hikari")
+  HikariDataSource dataSource(DataSourceProperties properties, Optional<Server> h2TcpServer) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  // Servidor TCP do H2 dentro do próprio processo (perfil h2-server), aceitando conexões só de localhost.
+  // O -ifNotExists deixa o cliente criar o banco em memória na primeira conexão.
+  @Bean(initMethod = "start", destroyMethod = "stop")
+  @ConditionalOnProperty("cashcard.h2.tcp-server.enabled")
+  Server h2TcpServer(@Value("${cashcard.h2.tcp-server.port}") int port) throws SQLException {
+    return Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifNotExists");
+  }
+
+  // Pelo mesmo motivo o schema.sql e o data.sql iriam só para o R2DBC; o banco JDBC é inicializado aqui
+  // (e o R2DBC, quando usado, pelo ReactiveConfig). No perfil sharded, cada shard é inicializado
+  // pelo OwnerShardRebalancer.
+  @Bean
+  @ConditionalOnProperty(name = "cashcard.sharding.enabled", havingValue = "false", matchIfMissing = true)
+  SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(DataSource dataSource, SqlInitializationProperties properties) {
+    return new SqlDataSourceScriptDatabaseInitializer(dataSource, properties);
+  }
+
+  // Também passam a existir dois gerenciadores de transação; @Transactional e TransactionTemplate usam o JDBC.
+  // O código reativo não depende de transações declarativas.
+  @Bean
+  @Primary
+  JdbcTransactionManager transactionManager(DataSource dataSource) {
+    return new JdbcTransactionManager(dataSource);
+  }
+}
@@ -0,0 +1,95 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Roda na SecurityFilterChain logo depois da autenticação, só para /cashcards/**. Duas barreiras, as duas sem espera:
+//   1. o OwnerRateLimiter do owner autenticado (GET/HEAD contam como leitura, o resto como escrita): 429 com Retry-After;
+//   2. um teto global de requisições em andamento, abaixo do número de threads do Tomcat, para recusar (503 com
+//      Retry-After) antes que a fila cresça e a latência de todo mundo dispare.
+// Requisições sem autenticação passam direto; quem as recusa é a autorização, logo adiante.
+// Não é um @Bean: como Filter, o Spring Boot o registraria também fora da cadeia de segurança.
+class RateLimitingFilter extends OncePerRequestFilter {
+  private static final RequestMatcher CASH_CARDS = new AntPathRequestMatcher("/cashcards/**");
+
+  private final OwnerRateLimiter ownerRateLimiter;
+  private final Semaphore inFlight;
+  private final Counter rejectedReads;
+  private final Counter rejectedWrites;
+  private final Counter shed;
+
+  RateLimitingFilter(OwnerRateLimiter ownerRateLimiter, int maxConcurrentRequests, MeterRegistry meterRegistry) {
+    this.ownerRateLimiter = ownerRateLimiter;
+    this.inFlight = new Semaphore(maxConcurrentRequests);
+    this.rejectedReads = rejected(meterRegistry, "read");
+    this.rejectedWrites = rejected(meterRegistry, "write");
+    this.shed = rejected(meterRegistry, "concurrency");
+    Gauge.builder("cashcard.ratelimit.in.flight", inFlight, permits -> maxConcurrentRequests - permits.availablePermits())
+      .register(meterRegistry);
+  }
+
+  private static Counter rejected(MeterRegistry meterRegistry, String limit) {
+    return Counter.builder("cashcard.ratelimit.rejected").tag("limit", limit).register(meterRegistry);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !CASH_CARDS.matches(request);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    long waitNanos = ownerRateLimiter.tryAcquire(authentication.getName(),
+      read ? OwnerRateLimiter.Kind.READ : OwnerRateLimiter.Kind.WRITE);
+    if (waitNanos > 0) {
+      (read ? rejectedReads : rejectedWrites).increment();
+      reject(response, HttpStatus.TOO_MANY_REQUESTS, waitNanos);
+      return;
+    }
+
+    if (!inFlight.tryAcquire()) {
+      shed.increment();
+      reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1));
+      return;
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      inFlight.release();
+    }
+  }
+
+  //-- Sem corpo: a recusa precisa custar o mínimo possível.
+  private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterNanos) {
+    response.setStatus(status.value());
+    long seconds = Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+  }
+}
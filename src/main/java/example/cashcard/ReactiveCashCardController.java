@@ -0,0 +1,115 @@
+package example.cashcard;
+
+import java.net.URI;
+import java.security.Principal;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import reactor.core.publisher.Mono;
+
+// Mesmo contrato de /cashcards do CashCardController (rotas, escopo por owner e códigos de status),
+// mas sem bloquear: roda no event loop do Netty sobre o ReactiveCashCardRepository (R2DBC).
+// As rotas extras da pilha servlet (batch, export e paginação por keyset) não existem aqui.
+@RestController
+@RequestMapping("/cashcards")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+class ReactiveCashCardController {
+  private final ReactiveCashCardRepository cashCardRepository;
+
+  private ReactiveCashCardController(ReactiveCashCardRepository cashCardRepository) {
+    this.cashCardRepository = cashCardRepository;
+  }
+
+  @GetMapping("/{requestedId}")
+  private Mono<ResponseEntity<CashCard>> findById(@PathVariable Long requestedId, Principal principal) {
+    return cashCardRepository.findByIdAndOwner(requestedId, principal.getName())
+      .map(cashCard -> ResponseEntity.ok().eTag(CashCardETag.of(cashCard.version())).body(cashCard))
+      .defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  @PostMapping
+  private Mono<ResponseEntity<Void>> createCashCard(@RequestBody CashCardRequest newCashCardRequest, UriComponentsBuilder ucb,
+      Principal principal) {
+    if (newCashCardRequest.amountInCents() == null) {
+      return Mono.just(ResponseEntity.badRequest().build());
+    }
+    CashCard cashCardWithOwner = CashCard.ofCents(null, newCashCardRequest.amountInCents(), principal.getName());
+    return cashCardRepository.save(cashCardWithOwner)
+      .map(savedCashCard -> {
+        URI locationOfNewCashCard = ucb
+          .path("cashcards/{id}")
+          .buildAndExpand(savedCashCard.id())
+          .toUri();
+        return ResponseEntity.created(locationOfNewCashCard).build();
+      });
+  }
+
+  @GetMapping
+  private Mono<ResponseEntity<List<CashCard>>> findAll(Pageable pageable, Principal principal) {
+    return cashCardRepository.findPageByOwner(
+        principal.getName(),
+        PageRequest.of(
+          pageable.getPageNumber(),
+          pageable.getPageSize(),
+          pageable.getSortOr(Sort.by(Sort.Direction.ASC, "amount"))
+        )
+      )
+      .collectList()
+      .map(ResponseEntity::ok);
+  }
+
+  @PutMapping("/{requestedId}")
+  private Mono<ResponseEntity<Void>> putCashCard(@PathVariable Long requestedId, @RequestBody CashCardRequest cashCardUpdate,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, Principal principal) {
+    if (cashCardUpdate.amountInCents() == null) {
+      return Mono.just(ResponseEntity.badRequest().build());
+    }
+    String owner = principal.getName();
+    if (ifMatch == null || ifMatch.equals("*")) {
+      //-- If-Match: * sem cartão atual é 412, não 404 (RFC 9110, 13.1.1).
+      HttpStatus missing = ifMatch == null ? HttpStatus.NOT_FOUND : HttpStatus.PRECONDITION_FAILED;
+      return cashCardRepository.updateAmountByIdAndOwner(requestedId, owner, cashCardUpdate.amountInCents())
+        .map(affectedRows -> affectedRows > 0
+          ? ResponseEntity.noContent().<Void>build()
+          : ResponseEntity.status(missing).<Void>build());
+    }
+
+    Long expectedVersion = CashCardETag.versionOf(ifMatch);
+    Mono<Integer> updated = expectedVersion == null
+      ? Mono.just(0)
+      : cashCardRepository.updateAmountByIdAndOwnerAndVersion(requestedId, owner, expectedVersion, cashCardUpdate.amountInCents());
+    return updated.flatMap(affectedRows -> affectedRows > 0
+      ? Mono.just(ResponseEntity.noContent().eTag(CashCardETag.of(expectedVersion + 1)).<Void>build())
+      : cashCardRepository.existsByIdAndOwner(requestedId, owner)
+        .map(exists -> exists
+          ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Void>build()
+          : ResponseEntity.notFound().<Void>build()));
+  }
+
+  @DeleteMapping("/{id}")
+  private Mono<ResponseEntity<Void>> deleteCashCard(@PathVariable Long id, Principal principal) {
+    return cashCardRepository.deleteByIdAndOwner(id, principal.getName())
+      .map(ReactiveCashCardController::noContentOrNotFound);
+  }
+
+  private static ResponseEntity<Void> noContentOrNotFound(int affectedRows) {
+    return affectedRows > 0 ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+  }
+}
@@ -0,0 +1,34 @@
+package example.cashcard;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Equivalente R2DBC do CashCardRepository, usado pelo ReactiveCashCardController.
+interface ReactiveCashCardRepository extends ReactiveCrudRepository<CashCard, Long>, ReactiveSortingRepository<CashCard, Long> {
+  Mono<CashCard> findByIdAndOwner(Long id, String owner);
+  Flux<CashCard> findByOwner(String owner, Pageable pageable);
+  Mono<Boolean> existsByIdAndOwner(Long id, String owner);
+
+  default Flux<CashCard> findPageByOwner(String owner, PageRequest pageRequest) {
+    return findByOwner(owner, pageRequest.withSort(CashCardRepository.indexOrder(pageRequest.getSort())));
+  }
+
+  @Modifying
+  @Query("UPDATE cash_card SET amount = :amount, version = version + 1 WHERE id = :id AND owner = :owner")
+  Mono<Integer> updateAmountByIdAndOwner(Long id, String owner, long amount);
+
+  @Modifying
+  @Query("UPDATE cash_card SET amount = :amount, version = version + 1 WHERE id = :id AND owner = :owner AND version = :version")
+  Mono<Integer> updateAmountByIdAndOwnerAndVersion(Long id, String owner, Long version, long amount);
+
+  @Modifying
+  @Query("DELETE FROM cash_card WHERE id = :id AND owner = :owner")
+  Mono<Integer> deleteByIdAndOwner(Long id, String owner);
+}
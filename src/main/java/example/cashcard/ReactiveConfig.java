@@ -0,0 +1,66 @@
+package example.cashcard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManagerAdapter;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+// Tudo o que a pilha reativa precisa além do ReactiveCashCardController: segurança WebFlux no lugar do
+// SecurityFilterChain do SecurityConfig, Pageable nos controllers e o schema/dados no banco R2DBC.
+@Configuration(proxyBeanMethods = false)
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+class ReactiveConfig implements WebFluxConfigurer {
+
+  @Bean
+  SecurityWebFilterChain reactiveFilterChain(ServerHttpSecurity http, ReactiveAuthenticationManager reactiveAuthenticationManager) {
+    http
+      .authorizeExchange(exchanges -> exchanges
+        .pathMatchers("/cashcards/**")
+        .hasRole("CARD-OWNER")
+        .pathMatchers("/actuator/health", "/actuator/prometheus")
+        .permitAll()
+      )
+      .httpBasic(httpBasic -> httpBasic.authenticationManager(reactiveAuthenticationManager))
+      .csrf(csrf -> csrf.disable());
+
+    return http.build();
+  }
+
+  // Reaproveita o mesmo AuthenticationManager (com o AuthenticationCache) da pilha servlet.
+  // O adapter roda a verificação no scheduler boundedElastic, então o BCrypt nunca ocupa o event loop.
+  @Bean
+  ReactiveAuthenticationManager reactiveAuthenticationManager(AuthenticationManager authenticationManager) {
+    return new ReactiveAuthenticationManagerAdapter(authenticationManager);
+  }
+
+  // O spring.sql.init só inicializa o DataSource JDBC; o banco R2DBC recebe os mesmos scripts aqui.
+  @Bean
+  ConnectionFactoryInitializer reactiveDatabaseInitializer(ConnectionFactory connectionFactory) {
+    ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+    initializer.setConnectionFactory(connectionFactory);
+    initializer.setDatabasePopulator(new ResourceDatabasePopulator(
+      new ClassPathResource("schema.sql"),
+      new ClassPathResource("data.sql")
+    ));
+    return initializer;
+  }
+
+  @Override
+  public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+    configurer.addCustomResolver(new ReactivePageableHandlerMethodArgumentResolver());
+  }
+}
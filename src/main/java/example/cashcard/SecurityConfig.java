@@ -1,17 +1,36 @@
 package example.cashcard;
 
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
 import org.springframework.security.config.Customizer;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ObservationAuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.provisioning.UserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 
 @Configuration
 public class SecurityConfig {
@@ -22,21 +41,85 @@ public class SecurityConfig {
   }
 
   @Bean
-  SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authenticationManager, OwnerRateLimiter ownerRateLimiter,
+      MeterRegistry meterRegistry, SignedTokens signedTokens, ObjectProvider<OwnerShards> ownerShards,
+      @Value("${cashcard.security.token.enabled:true}") boolean tokenEnabled,
+      @Value("${cashcard.ratelimit.enabled:true}") boolean rateLimitEnabled,
+      @Value("${cashcard.ratelimit.max-concurrent-requests:150}") int maxConcurrentRequests) throws Exception {
+    if (tokenEnabled) {
+      http.addFilterBefore(new SignedTokenAuthenticationFilter(signedTokens), BasicAuthenticationFilter.class);
+    }
+    if (rateLimitEnabled) {
+      http.addFilterAfter(new RateLimitingFilter(ownerRateLimiter, maxConcurrentRequests, meterRegistry), BasicAuthenticationFilter.class);
+    }
+    ownerShards.ifAvailable(shards -> http.addFilterAfter(new OwnerShardFilter(shards), AuthorizationFilter.class));
     http
+      .authenticationManager(authenticationManager)
       .authorizeHttpRequests(requests -> requests
         .requestMatchers("/cashcards/**")
         //.authenticated()
         .hasRole("CARD-OWNER")
+        .requestMatchers("/auth/token")
+        .authenticated()
+        .requestMatchers("/actuator/health", "/actuator/prometheus")
+        .permitAll()
       )
       .httpBasic(Customizer.withDefaults())
+      //-- Nem o Basic nem o token precisam de sessão; sem ela, nenhuma instância guarda estado de login.
+      .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
       .csrf(csrf -> csrf.disable());
 
     return http.build();
   }
 
   @Bean
-  UserDetailsService testOnlyUsers(PasswordEncoder passwordEncoder) {
+  OwnerRateLimiter ownerRateLimiter(
+      @Value("${cashcard.ratelimit.read.requests-per-second:200}") double readRequestsPerSecond,
+      @Value("${cashcard.ratelimit.read.burst:400}") int readBurst,
+      @Value("${cashcard.ratelimit.write.requests-per-second:50}") double writeRequestsPerSecond,
+      @Value("${cashcard.ratelimit.write.burst:100}") int writeBurst,
+      @Value("${cashcard.ratelimit.maximum-owners:100000}") long maximumOwners,
+      @Value("${cashcard.ratelimit.idle-time:10m}") Duration idleTime) {
+    return new OwnerRateLimiter(
+      new OwnerRateLimiter.Limit(readRequestsPerSecond, readBurst),
+      new OwnerRateLimiter.Limit(writeRequestsPerSecond, writeBurst),
+      maximumOwners, idleTime);
+  }
+
+  @Bean
+  SignedTokens signedTokens(
+      @Value("${cashcard.security.token.secret:}") String secret,
+      @Value("${cashcard.security.token.time-to-live:15m}") Duration timeToLive) {
+    byte[] key = new byte[32];
+    if (secret.isBlank()) {
+      new SecureRandom().nextBytes(key);
+    } else {
+      key = Base64.getDecoder().decode(secret);
+    }
+    return new SignedTokens(key, timeToLive, Clock.systemUTC());
+  }
+
+  @Bean
+  AuthenticationCache authenticationCache(
+      @Value("${cashcard.security.auth-cache.maximum-size:10000}") long maximumSize,
+      @Value("${cashcard.security.auth-cache.time-to-live:5m}") Duration timeToLive) {
+    return new AuthenticationCache(maximumSize, timeToLive);
+  }
+
+  // Como o AuthenticationManager é nosso, o Spring Security não o envolve com a observação sozinho;
+  // sem isso o tempo de autenticação não apareceria separado do resto da requisição.
+  @Bean
+  AuthenticationManager authenticationManager(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+      AuthenticationCache authenticationCache, ObservationRegistry observationRegistry) {
+    DaoAuthenticationProvider bcryptProvider = new DaoAuthenticationProvider(passwordEncoder);
+    bcryptProvider.setUserDetailsService(userDetailsService);
+    return new ObservationAuthenticationManager(observationRegistry,
+      new ProviderManager(new CachingAuthenticationProvider(bcryptProvider, authenticationCache)));
+  }
+
+  @Bean
+  UserDetailsManager testOnlyUsers(PasswordEncoder passwordEncoder, AuthenticationCache authenticationCache) {
     User.UserBuilder users = User.builder();
     UserDetails sarah = users
       .username("sarah1")
@@ -56,6 +139,9 @@ public class SecurityConfig {
       .roles("CARD-OWNER")
       .build();
 
-    return new InMemoryUserDetailsManager(sarah, hankOwnsNoCards, kumar);
+    return new CacheInvalidatingUserDetailsManager(
+      new InMemoryUserDetailsManager(sarah, hankOwnsNoCards, kumar),
+      authenticationCache
+    );
   }
 }
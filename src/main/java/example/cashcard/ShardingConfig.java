@@ -0,0 +1,69 @@
+package example.cashcard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.relational.core.dialect.Dialect;
+import org.springframework.data.relational.core.dialect.H2Dialect;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Perfil sharded: os cartões ficam em cashcard.sharding.shards bancos H2, cada owner inteiro em um deles (todas as
+// consultas já filtram por owner). Substitui o DataSource único do PersistenceConfig pelo OwnerShardedDataSource;
+// repositórios, escritores e transações continuam os mesmos. A pilha reativa continua com o seu banco R2DBC único.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("cashcard.sharding.enabled")
+class ShardingConfig {
+
+  // Um pool por shard, todos com as mesmas configurações de spring.datasource.hikari.*; a URL de cada um é
+  // cashcard.sharding.url-template com o número do shard no lugar de %d.
+  @Bean
+  OwnerShards ownerShards(Environment environment,
+      @Value("${cashcard.sharding.shards}") int shards,
+      @Value("${cashcard.sharding.url-template}") String urlTemplate) {
+    List<DataSource> dataSources = new ArrayList<>();
+    for (int shard = 0; shard < shards; shard++) {
+      dataSources.add(shardDataSource(environment, urlTemplate, shard));
+    }
+    return new OwnerShards(dataSources);
+  }
+
+  static HikariDataSource shardDataSource(Environment environment, String urlTemplate, int shard) {
+    HikariDataSource dataSource = DataSourceBuilder.create()
+      .type(HikariDataSource.class)
+      .url(urlTemplate.formatted(shard))
+      .build();
+    Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+    dataSource.setPoolName("cashcard-shard-" + shard);
+    return dataSource;
+  }
+
+  @Bean
+  OwnerShardedDataSource dataSource(OwnerShards ownerShards) {
+    return new OwnerShardedDataSource(ownerShards);
+  }
+
+  // O Spring Data JDBC descobre o dialeto abrindo uma conexão na subida, quando nenhum shard está ligado à thread.
+  @Bean
+  Dialect jdbcDialect() {
+    return H2Dialect.INSTANCE;
+  }
+
+  @Bean
+  OwnerShardRebalancer ownerShardRebalancer(OwnerShards ownerShards, JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate, CashCardSummaryRepository cashCardSummaryRepository) {
+    return new OwnerShardRebalancer(ownerShards, jdbcTemplate, transactionTemplate, cashCardSummaryRepository);
+  }
+}
@@ -0,0 +1,67 @@
+package example.cashcard;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Aceita "Authorization: Bearer <token>" em /cashcards/**, com o token emitido por POST /auth/token.
+// Roda antes do BasicAuthenticationFilter; sem o cabeçalho Bearer a requisição segue para o HTTP Basic como antes.
+// Token inválido ou expirado recebe 401 aqui mesmo, sem cair no Basic. As regras de role e de owner são as mesmas:
+// a autorização adiante vê o owner e as authorities que estavam no token.
+// Como no BasicAuthenticationFilter, o contexto também vai para um atributo da requisição: o dispatch de ERROR para
+// /error passa de novo pela cadeia sem passar por este filtro, e sem isso um sendError(403) viraria 401 como anônimo.
+// Não é um @Bean, pelo mesmo motivo do RateLimitingFilter.
+class SignedTokenAuthenticationFilter extends OncePerRequestFilter {
+  private static final RequestMatcher CASH_CARDS = new AntPathRequestMatcher("/cashcards/**");
+  private static final String BEARER = "Bearer ";
+
+  private final SignedTokens signedTokens;
+  private final SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+  private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
+  SignedTokenAuthenticationFilter(SignedTokens signedTokens) {
+    this.signedTokens = signedTokens;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !CASH_CARDS.matches(request);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+    if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    Authentication authentication = signedTokens.verify(authorization.substring(BEARER.length()).trim());
+    if (authentication == null) {
+      response.setStatus(HttpStatus.UNAUTHORIZED.value());
+      response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+      return;
+    }
+    SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+    context.setAuthentication(authentication);
+    securityContextHolderStrategy.setContext(context);
+    securityContextRepository.saveContext(context, request, response);
+    filterChain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,135 @@
+package example.cashcard;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+// Tokens curtos assinados com HMAC-SHA256: base64url("<expira em, epoch s>:<authorities>:<owner>") + "." + base64url(hmac).
+// Quem valida não consulta o UserDetailsManager nem roda BCrypt; basta a mesma chave, então qualquer instância que a
+// conheça aceita o token. A assinatura é recalculada num buffer da própria thread e comparada com o token em tempo
+// constante, caractere a caractere, sem decodificar nada; o payload só é decodificado depois que a assinatura bate.
+// Não há revogação: um usuário removido continua valendo até o token expirar, por isso o time-to-live é curto.
+final class SignedTokens {
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final int SIGNATURE_LENGTH = 43; // 32 bytes em base64url, sem padding
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final SecretKeySpec key;
+  private final Duration timeToLive;
+  private final Clock clock;
+  private final ThreadLocal<Signer> signers;
+  //-- Poucas combinações de authorities; como só entram depois da assinatura conferida, o mapa não cresce com lixo.
+  private final Map<String, List<GrantedAuthority>> authorities = new ConcurrentHashMap<>();
+
+  SignedTokens(byte[] secret, Duration timeToLive, Clock clock) {
+    if (secret.length < 32) {
+      throw new IllegalArgumentException("token secret must have at least 256 bits");
+    }
+    this.key = new SecretKeySpec(secret, ALGORITHM);
+    this.timeToLive = timeToLive;
+    this.clock = clock;
+    this.signers = ThreadLocal.withInitial(() -> new Signer(key));
+  }
+
+  Duration timeToLive() {
+    return timeToLive;
+  }
+
+  String issue(String owner, Collection<? extends GrantedAuthority> grantedAuthorities) {
+    long expiresAt = clock.instant().plus(timeToLive).getEpochSecond();
+    String roles = grantedAuthorities.stream()
+      .map(GrantedAuthority::getAuthority)
+      .sorted()
+      .collect(Collectors.joining(","));
+    String payload = ENCODER.encodeToString((expiresAt + ":" + roles + ":" + owner).getBytes(StandardCharsets.UTF_8));
+    Signer signer = signers.get();
+    int length = signer.sign(payload, payload.length());
+    return payload + "." + new String(signer.encoded, 0, length, StandardCharsets.US_ASCII);
+  }
+
+  // null quando a assinatura não confere, o token está malformado ou já expirou.
+  Authentication verify(String token) {
+    int dot = token.length() - SIGNATURE_LENGTH - 1;
+    if (dot <= 0 || token.charAt(dot) != '.') {
+      return null;
+    }
+    Signer signer = signers.get();
+    if (signer.sign(token, dot) != SIGNATURE_LENGTH) {
+      return null;
+    }
+    int difference = 0;
+    for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+      difference |= signer.encoded[i] ^ token.charAt(dot + 1 + i);
+    }
+    if (difference != 0) {
+      return null;
+    }
+
+    String payload = new String(DECODER.decode(token.substring(0, dot)), StandardCharsets.UTF_8);
+    int firstColon = payload.indexOf(':');
+    int secondColon = payload.indexOf(':', firstColon + 1);
+    if (Long.parseLong(payload, 0, firstColon, 10) <= clock.instant().getEpochSecond()) {
+      return null;
+    }
+    List<GrantedAuthority> granted = authorities.computeIfAbsent(payload.substring(firstColon + 1, secondColon),
+      AuthorityUtils::commaSeparatedStringToAuthorityList);
+    return UsernamePasswordAuthenticationToken.authenticated(payload.substring(secondColon + 1), null, granted);
+  }
+
+  // Um Mac e os buffers de trabalho por thread: validar um token não aloca nada até a assinatura conferir.
+  private static final class Signer {
+    private final Mac mac;
+    private final byte[] digest = new byte[32];
+    private final byte[] encoded = new byte[SIGNATURE_LENGTH];
+    private byte[] input = new byte[256];
+
+    Signer(SecretKeySpec key) {
+      try {
+        this.mac = Mac.getInstance(ALGORITHM);
+        this.mac.init(key);
+      } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+        throw new IllegalStateException(ALGORITHM + " not available", e);
+      }
+    }
+
+    // Assina os primeiros length caracteres de text e deixa o resultado, em base64url, em encoded.
+    // -1 se algum caractere não for ASCII: o payload emitido nunca tem, e truncá-lo para byte abriria colisões.
+    int sign(String text, int length) {
+      if (input.length < length) {
+        input = new byte[Math.max(length, input.length * 2)];
+      }
+      for (int i = 0; i < length; i++) {
+        char c = text.charAt(i);
+        if (c > 0x7f) {
+          return -1;
+        }
+        input[i] = (byte) c;
+      }
+      mac.update(input, 0, length);
+      try {
+        mac.doFinal(digest, 0);
+      } catch (ShortBufferException e) {
+        throw new IllegalStateException(e);
+      }
+      return ENCODER.encode(digest, encoded);
+    }
+  }
+}
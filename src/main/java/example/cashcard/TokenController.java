@@ -0,0 +1,28 @@
+package example.cashcard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Troca uma credencial HTTP Basic (verificada uma vez, pelo AuthenticationManager de sempre) por um token assinado.
+// Um token não emite outro: o SignedTokenAuthenticationFilter só atua em /cashcards/**, então aqui só o Basic vale.
+@RestController
+@RequestMapping("/auth/token")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+class TokenController {
+  private final SignedTokens signedTokens;
+
+  TokenController(SignedTokens signedTokens) {
+    this.signedTokens = signedTokens;
+  }
+
+  @PostMapping
+  TokenResponse issue(Authentication authentication) {
+    String token = signedTokens.issue(authentication.getName(), authentication.getAuthorities());
+    return new TokenResponse(token, "Bearer", signedTokens.timeToLive().toSeconds());
+  }
+
+  record TokenResponse(String token, String tokenType, long expiresIn) {}
+}
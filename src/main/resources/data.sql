@@ -1,4 +1,6 @@
-INSERT INTO CASH_CARD(ID, AMOUNT, OWNER) VALUES (99, 123.45, 'sarah1');
-INSERT INTO CASH_CARD(ID, AMOUNT, OWNER) VALUES (100, 1.00, 'sarah1');
-INSERT INTO CASH_CARD(ID, AMOUNT, OWNER) VALUES (101, 150.00, 'sarah1');
-INSERT INTO CASH_CARD(ID, AMOUNT, OWNER) VALUES (102, 200.00, 'kumar2');
\ No newline at end of file
+-- Seeds an empty database only, so a file-backed or server database (h2-file, h2-server profiles) keeps its cards across restarts.
+INSERT INTO CASH_CARD(ID, AMOUNT, OWNER)
+SELECT * FROM (VALUES (99, 12345, 'sarah1'), (100, 100, 'sarah1'), (101, 15000, 'sarah1'), (102, 20000, 'kumar2'))
+WHERE NOT EXISTS (SELECT 1 FROM CASH_CARD);
+MERGE INTO CASH_CARD_SUMMARY(OWNER, CARD_COUNT, TOTAL, MIN_AMOUNT, MAX_AMOUNT) KEY(OWNER)
+SELECT OWNER, COUNT(*), SUM(AMOUNT), MIN(AMOUNT), MAX(AMOUNT) FROM CASH_CARD GROUP BY OWNER;
\ No newline at end of file
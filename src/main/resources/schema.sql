@@ -1,6 +1,31 @@
-CREATE TABLE cash_card
+-- Every statement is IF NOT EXISTS: with spring.sql.init.mode=always (h2-file, h2-server profiles) the script
+-- also runs against a database that already has the tables.
+
+-- Generated ids start above the fixed ids used by data.sql, otherwise the 99th new card would collide with card 99.
+CREATE TABLE IF NOT EXISTS cash_card
 (
-    ID     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    AMOUNT NUMBER NOT NULL DEFAULT 0,
-    OWNER  VARCHAR(256) NOT NULL
-);
\ No newline at end of file
+    ID     BIGINT GENERATED BY DEFAULT AS IDENTITY (START WITH 1000) PRIMARY KEY,
+    -- In cents (minor units): 123.45 is stored as 12345.
+    AMOUNT BIGINT NOT NULL DEFAULT 0,
+    OWNER  VARCHAR(256) NOT NULL,
+    -- Bumped by every write; served as the card's ETag and checked against If-Match.
+    VERSION BIGINT NOT NULL DEFAULT 0
+);
+
+-- Every list query filters by OWNER and sorts by AMOUNT (ties broken by ID), so this
+-- index both narrows the scan to one owner and returns rows already in order. VERSION is
+-- deliberately left out: list rows are fetched from the table, but the index stays narrow.
+-- Lookups by ID AND OWNER are served by the primary key.
+CREATE INDEX IF NOT EXISTS cash_card_owner_amount_id ON cash_card (OWNER, AMOUNT, ID);
+
+-- One row per owner with the aggregates behind GET /cashcards/summary. Every write to
+-- cash_card updates its owner's row in the same transaction (CashCardWriter and
+-- CashCardBatchWriter); CashCardSummaryVerifier recomputes rows that drifted.
+CREATE TABLE IF NOT EXISTS cash_card_summary
+(
+    OWNER      VARCHAR(256) NOT NULL PRIMARY KEY,
+    CARD_COUNT BIGINT NOT NULL DEFAULT 0,
+    TOTAL      BIGINT NOT NULL DEFAULT 0,
+    MIN_AMOUNT BIGINT,
+    MAX_AMOUNT BIGINT
+);
@@ -0,0 +1,90 @@
+package example.cashcard;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingAuthenticationProviderTest {
+  private final AtomicInteger bcryptChecks = new AtomicInteger();
+
+  private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4) {
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      bcryptChecks.incrementAndGet();
+      return super.matches(rawPassword, encodedPassword);
+    }
+  };
+
+  private AuthenticationCache cache;
+  private CacheInvalidatingUserDetailsManager users;
+  private CachingAuthenticationProvider provider;
+
+  @BeforeEach
+  void setUp() {
+    cache = new AuthenticationCache(100, Duration.ofMinutes(5));
+    users = new CacheInvalidatingUserDetailsManager(
+      new InMemoryUserDetailsManager(user("sarah1", "abc123", "CARD-OWNER")),
+      cache
+    );
+    DaoAuthenticationProvider bcryptProvider = new DaoAuthenticationProvider(passwordEncoder);
+    bcryptProvider.setUserDetailsService(users);
+    provider = new CachingAuthenticationProvider(bcryptProvider, cache);
+  }
+
+  @Test
+  void shouldSkipBCryptForAlreadyVerifiedCredentials() {
+    Authentication first = provider.authenticate(credentials("sarah1", "abc123"));
+    Authentication second = provider.authenticate(credentials("sarah1", "abc123"));
+
+    assertThat(first.isAuthenticated()).isTrue();
+    assertThat(second).isSameAs(first);
+    assertThat(bcryptChecks).hasValue(1);
+    assertThat(cache.hitCount()).isEqualTo(1);
+    assertThat(cache.missCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldStillRejectAWrongPasswordAfterACacheHit() {
+    provider.authenticate(credentials("sarah1", "abc123"));
+
+    assertThatThrownBy(() -> provider.authenticate(credentials("sarah1", "BAD-PASSWORD")))
+      .isInstanceOf(BadCredentialsException.class);
+    assertThat(bcryptChecks).hasValue(2);
+  }
+
+  @Test
+  void shouldForgetCredentialsWhenTheUserChanges() {
+    provider.authenticate(credentials("sarah1", "abc123"));
+
+    users.updateUser(user("sarah1", "new-password", "NON-OWNER"));
+
+    assertThatThrownBy(() -> provider.authenticate(credentials("sarah1", "abc123")))
+      .isInstanceOf(BadCredentialsException.class);
+    Authentication updated = provider.authenticate(credentials("sarah1", "new-password"));
+    assertThat(updated.getAuthorities()).extracting("authority").containsExactly("ROLE_NON-OWNER");
+  }
+
+  private User user(String username, String password, String role) {
+    return (User) User.builder()
+      .username(username)
+      .password(passwordEncoder.encode(password))
+      .roles(role)
+      .build();
+  }
+
+  private static UsernamePasswordAuthenticationToken credentials(String username, String password) {
+    return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+  }
+}
@@ -0,0 +1,144 @@
+package example.cashcard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+import net.minidev.json.JSONArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//-- Blocos de 2 itens para que o lote de teste atravesse várias transações e vários batches JDBC.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+  "cashcard.batch.chunk-size=2",
+  "cashcard.batch.max-items=10"
+})
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+class CashCardBatchTests {
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Test
+  void shouldApplyMixedOperationsInOrderAndReportEachOne() {
+    ResponseEntity<String> response = postBatch("""
+        [
+          { "op": "create", "amount": 42.00 },
+          { "op": "create", "amount": 43.00 },
+          { "op": "update", "id": 99, "amount": 19.99 },
+          { "op": "delete", "id": 100 },
+          { "op": "update", "id": 102, "amount": 333.33 },
+          { "op": "delete", "id": 99999 },
+          { "op": "update", "id": 101 },
+          { "op": "explode", "id": 101 },
+          { "id": 101, "amount": 1.00 }
+        ]
+        """);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+    DocumentContext documentContext = JsonPath.parse(response.getBody());
+    JSONArray indexes = documentContext.read("$[*].index");
+    JSONArray statuses = documentContext.read("$[*].status");
+    assertThat(indexes).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8);
+    assertThat(statuses).containsExactly(201, 201, 204, 204, 404, 404, 400, 400, 400);
+
+    Number createdId = documentContext.read("$[0].id");
+    ResponseEntity<String> created = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards/" + createdId, String.class);
+    assertThat(created.getStatusCode()).isEqualTo(HttpStatus.OK);
+    Double createdAmount = JsonPath.parse(created.getBody()).read("$.amount");
+    assertThat(createdAmount).isEqualTo(42.00);
+
+    ResponseEntity<String> updated = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards/99", String.class);
+    Double updatedAmount = JsonPath.parse(updated.getBody()).read("$.amount");
+    assertThat(updatedAmount).isEqualTo(19.99);
+
+    ResponseEntity<String> deleted = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards/100", String.class);
+    assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  @Test
+  void shouldNotTouchCashCardsOwnedBySomeoneElse() {
+    ResponseEntity<String> response = postBatch("""
+        [ { "op": "delete", "id": 102 } ]
+        """);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    JSONArray statuses = JsonPath.parse(response.getBody()).read("$[*].status");
+    assertThat(statuses).containsExactly(404);
+
+    ResponseEntity<String> getResponse = restTemplate
+      .withBasicAuth("kumar2", "xyz789")
+      .getForEntity("/cashcards/102", String.class);
+    assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+  }
+
+  @Test
+  void shouldReportWhatWasAppliedBeforeMalformedJson() {
+    ResponseEntity<String> response = postBatch("""
+        [
+          { "op": "delete", "id": 99 },
+          { "op": "delete", "id": 100 },
+          { "op": "delete", "id": 101
+        """);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+    JSONArray statuses = JsonPath.parse(response.getBody()).read("$[*].status");
+    assertThat(statuses).containsExactly(204, 204);
+  }
+
+  @Test
+  void shouldApplyOnlyUpToTheMaximumNumberOfItems() {
+    ResponseEntity<String> response = postBatch("""
+        [
+          { "op": "delete", "id": 99 },
+          { "op": "delete", "id": 90001 }, { "op": "delete", "id": 90002 }, { "op": "delete", "id": 90003 },
+          { "op": "delete", "id": 90004 }, { "op": "delete", "id": 90005 }, { "op": "delete", "id": 90006 },
+          { "op": "delete", "id": 90007 }, { "op": "delete", "id": 90008 }, { "op": "delete", "id": 90009 },
+          { "op": "delete", "id": 100 }
+        ]
+        """);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+
+    JSONArray statuses = JsonPath.parse(response.getBody()).read("$[*].status");
+    assertThat(statuses).containsExactly(204, 404, 404, 404, 404, 404, 404, 404, 404, 404);
+
+    ResponseEntity<String> notApplied = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards/100", String.class);
+    assertThat(notApplied.getStatusCode()).isEqualTo(HttpStatus.OK);
+  }
+
+  @Test
+  void shouldRejectUsersWhoAreNotCardOwners() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    ResponseEntity<String> response = restTemplate
+      .withBasicAuth("hank-owns-no-cards", "qrs456")
+      .postForEntity("/cashcards/batch", new HttpEntity<>("[]", headers), String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+  }
+
+  private ResponseEntity<String> postBatch(String body) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    return restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .postForEntity("/cashcards/batch", new HttpEntity<>(body, headers), String.class);
+  }
+}
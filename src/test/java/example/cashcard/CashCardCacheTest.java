@@ -0,0 +1,65 @@
+package example.cashcard;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CashCardCacheTest {
+  private CashCardRepository cashCardRepository;
+  private CashCardCache cashCardCache;
+
+  @BeforeEach
+  void setUp() {
+    cashCardRepository = mock(CashCardRepository.class);
+    cashCardCache = new CashCardCache(cashCardRepository, 100, Duration.ofMinutes(10), Duration.ofSeconds(5));
+  }
+
+  @Test
+  void shouldReadThroughOnlyOnceForAHotCashCard() {
+    CashCard cashCard = CashCard.ofAmount(99L, 123.45, "sarah1");
+    when(cashCardRepository.findByIdAndOwner(99L, "sarah1")).thenReturn(cashCard);
+
+    assertThat(cashCardCache.findByIdAndOwner(99L, "sarah1")).isEqualTo(cashCard);
+    assertThat(cashCardCache.findByIdAndOwner(99L, "sarah1")).isEqualTo(cashCard);
+
+    verify(cashCardRepository, times(1)).findByIdAndOwner(99L, "sarah1");
+    assertThat(cashCardCache.stats().hitCount()).isEqualTo(1);
+    assertThat(cashCardCache.stats().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCacheNotFoundLookups() {
+    assertThat(cashCardCache.findByIdAndOwner(1000L, "sarah1")).isNull();
+    assertThat(cashCardCache.findByIdAndOwner(1000L, "sarah1")).isNull();
+
+    verify(cashCardRepository, times(1)).findByIdAndOwner(1000L, "sarah1");
+  }
+
+  @Test
+  void shouldKeepOwnersApart() {
+    when(cashCardRepository.findByIdAndOwner(102L, "kumar2")).thenReturn(CashCard.ofAmount(102L, 200.00, "kumar2"));
+
+    assertThat(cashCardCache.findByIdAndOwner(102L, "kumar2")).isNotNull();
+    assertThat(cashCardCache.findByIdAndOwner(102L, "sarah1")).isNull();
+  }
+
+  @Test
+  void shouldReloadAfterInvalidation() {
+    when(cashCardRepository.findByIdAndOwner(1000L, "sarah1")).thenReturn(null);
+    assertThat(cashCardCache.findByIdAndOwner(1000L, "sarah1")).isNull();
+
+    CashCard created = CashCard.ofAmount(1000L, 250.00, "sarah1");
+    when(cashCardRepository.findByIdAndOwner(1000L, "sarah1")).thenReturn(created);
+    cashCardCache.invalidate(1000L, "sarah1");
+
+    assertThat(cashCardCache.findByIdAndOwner(1000L, "sarah1")).isEqualTo(created);
+    verify(cashCardRepository, times(2)).findByIdAndOwner(1000L, "sarah1");
+  }
+}
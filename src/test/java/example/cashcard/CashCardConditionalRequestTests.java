@@ -0,0 +1,108 @@
+package example.cashcard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.jayway.jsonpath.JsonPath;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+class CashCardConditionalRequestTests {
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Test
+  void shouldServeTheVersionAsAStrongETag() {
+    ResponseEntity<String> response = get(99, new HttpHeaders());
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getHeaders().getETag()).isEqualTo("\"0\"");
+    assertThat(response.getBody()).doesNotContain("version");
+  }
+
+  @Test
+  void shouldAnswerAMatchingIfNoneMatchWithNotModifiedAndNoBody() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setIfNoneMatch("\"0\"");
+
+    ResponseEntity<String> response = get(99, headers);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(response.getHeaders().getETag()).isEqualTo("\"0\"");
+    assertThat(response.getBody()).isNull();
+  }
+
+  @Test
+  void shouldUpdateWhenIfMatchHasTheCurrentVersion() {
+    ResponseEntity<Void> response = put(99, 19.99, "\"0\"");
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+    assertThat(response.getHeaders().getETag()).isEqualTo("\"1\"");
+
+    ResponseEntity<String> getResponse = get(99, new HttpHeaders());
+    assertThat(getResponse.getHeaders().getETag()).isEqualTo("\"1\"");
+    Double amount = JsonPath.parse(getResponse.getBody()).read("$.amount");
+    assertThat(amount).isEqualTo(19.99);
+  }
+
+  @Test
+  void shouldRejectTheSecondOfTwoUpdatesMadeFromTheSameRead() {
+    String eTag = get(99, new HttpHeaders()).getHeaders().getETag();
+
+    ResponseEntity<Void> first = put(99, 19.99, eTag);
+    ResponseEntity<Void> second = put(99, 77.77, eTag);
+
+    assertThat(first.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+    assertThat(second.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    Double amount = JsonPath.parse(get(99, new HttpHeaders()).getBody()).read("$.amount");
+    assertThat(amount).isEqualTo(19.99);
+  }
+
+  @Test
+  void shouldStillUpdateUnconditionallyWithoutIfMatch() {
+    assertThat(put(99, 19.99, null).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+    assertThat(get(99, new HttpHeaders()).getHeaders().getETag()).isEqualTo("\"1\"");
+  }
+
+  @Test
+  void shouldNotRevealCashCardsOfOtherOwnersThroughIfMatch() {
+    ResponseEntity<Void> response = put(102, 19.99, "\"5\"");
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  @Test
+  void shouldAnswerIfMatchAnyWithPreconditionFailedWhenThereIsNoCashCard() {
+    assertThat(put(99, 19.99, "*").getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+    assertThat(put(99999, 19.99, "*").getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    assertThat(put(99999, 19.99, null).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  private ResponseEntity<String> get(long id, HttpHeaders headers) {
+    return restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .exchange("/cashcards/" + id, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+  }
+
+  private ResponseEntity<Void> put(long id, double amount, String ifMatch) {
+    HttpHeaders headers = new HttpHeaders();
+    if (ifMatch != null) {
+      headers.setIfMatch(ifMatch);
+    }
+    return restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .exchange("/cashcards/" + id, HttpMethod.PUT, new HttpEntity<>(CashCard.ofAmount(null, amount, null), headers), Void.class);
+  }
+}
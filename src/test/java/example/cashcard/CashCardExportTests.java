@@ -0,0 +1,66 @@
+package example.cashcard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CashCardExportTests {
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Test
+  void shouldExportEveryCashCardOfTheOwnerAsOneJsonObjectPerLine() {
+    ResponseEntity<String> response = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards/export", String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+
+    String[] lines = response.getBody().split("\n");
+    assertThat(lines).hasSize(3);
+    assertThat(response.getBody()).endsWith("\n");
+
+    DocumentContext first = JsonPath.parse(lines[0]);
+    Integer id = first.read("$.id");
+    Double amount = first.read("$.amount");
+    String owner = first.read("$.owner");
+    assertThat(id).isEqualTo(100);
+    assertThat(amount).isEqualTo(1.00);
+    assertThat(owner).isEqualTo("sarah1");
+
+    assertThat(lines).noneMatch(line -> line.contains("kumar2"));
+  }
+
+  @Test
+  void shouldExportOnlyTheCashCardsOfTheAuthenticatedOwner() {
+    ResponseEntity<String> response = restTemplate
+      .withBasicAuth("kumar2", "xyz789")
+      .getForEntity("/cashcards/export", String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    String[] lines = response.getBody().split("\n");
+    assertThat(lines).hasSize(1);
+    Integer id = JsonPath.parse(lines[0]).read("$.id");
+    assertThat(id).isEqualTo(102);
+  }
+
+  @Test
+  void shouldRejectUsersWhoAreNotCardOwners() {
+    ResponseEntity<String> response = restTemplate
+      .withBasicAuth("hank-owns-no-cards", "qrs456")
+      .getForEntity("/cashcards/export", String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+  }
+}
@@ -9,7 +9,10 @@ import org.springframework.boot.test.json.JacksonTester;
 
 import java.io.IOException;
 
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 // A anotação @JsonTest indica que esta classe é uma classe de teste especializada
 // para testes de serialização e desserialização JSON com o Spring Boot.
@@ -30,9 +33,9 @@ class CashCardJsonTest {
   @BeforeEach
   void setUp() {
     cashCards = Arrays.array(
-      new CashCard(99L, 123.45, "sarah1"),
-      new CashCard(100L, 1.00, "sarah1"),
-      new CashCard(101L, 150.00, "sarah1")
+      CashCard.ofAmount(99L, 123.45, "sarah1"),
+      CashCard.ofAmount(100L, 1.00, "sarah1"),
+      CashCard.ofAmount(101L, 150.00, "sarah1")
     );
   }
 
@@ -71,7 +74,7 @@ class CashCardJsonTest {
             """;
     
     //-- Compara o objeto CashCard resultante da deserialização do JSON com uma nova instância do CashCard, garantindo que os valores correspondam.
-    assertThat(json.parse(expected)).isEqualTo(new CashCard(99L, 123.45, "sarah1"));
+    assertThat(json.parse(expected)).isEqualTo(CashCard.ofAmount(99L, 123.45, "sarah1"));
     
     //-- Extrai o valor do campo "id" do objeto deserializado e verifica se ele é igual a 99.
     assertThat(json.parseObject(expected).id()).isEqualTo(99);
@@ -98,4 +101,25 @@ class CashCardJsonTest {
 
     assertThat(jsonList.parse(expected)).isEqualTo(cashCards);
   }
+
+  //-- O CashCardSerializer escreve o id nulo e amounts negativos ou abaixo de um real como o BeanSerializer escrevia.
+  @Test
+  void cashCardWithoutIdAndSmallAmountsSerializationTest() throws IOException {
+    assertThat(json.write(CashCard.ofCents(null, 5L, "sarah1"))).isStrictlyEqualToJson("{\"id\": null, \"amount\": 0.05, \"owner\": \"sarah1\"}");
+    assertThat(json.write(CashCard.ofCents(7L, -1050L, "sarah1")).getJson()).contains("\"amount\":-10.50");
+    assertThat(json.write(CashCard.ofCents(8L, -5L, "sarah1")).getJson()).contains("\"amount\":-0.05");
+  }
+
+  //-- O amount vira centavos a partir do texto do número, sem passar por double.
+  @Test
+  void cashCardAmountDeserializationShouldBeExact() throws IOException {
+    assertThat(json.parseObject("{\"amount\": 0.10}").amountInCents()).isEqualTo(10);
+    assertThat(json.parseObject("{\"amount\": 1000000.01}").amountInCents()).isEqualTo(100000001);
+    assertThat(json.parseObject("{\"amount\": 7}").amountInCents()).isEqualTo(700);
+  }
+
+  @Test
+  void cashCardAmountWithMoreThanTwoDecimalPlacesShouldBeRejected() {
+    assertThatThrownBy(() -> json.parseObject("{\"amount\": 1.005}")).isInstanceOf(InvalidFormatException.class);
+  }
 }
@@ -0,0 +1,87 @@
+package example.cashcard;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+import net.minidev.json.JSONArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CashCardKeysetPaginationTests {
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Test
+  void shouldWalkAllCashCardsByFollowingTheNextLink() {
+    List<Object> amounts = new ArrayList<>();
+    URI next = URI.create("/cashcards?after=&size=1");
+    int requests = 0;
+
+    while (next != null) {
+      ResponseEntity<String> response = restTemplate
+        .withBasicAuth("sarah1", "abc123")
+        .getForEntity(next, String.class);
+      assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+      JSONArray page = JsonPath.parse(response.getBody()).read("$..amount");
+      amounts.addAll(page);
+      next = nextLink(response);
+      requests++;
+    }
+
+    assertThat(amounts).containsExactly(1.00, 123.45, 150.00);
+    assertThat(requests).isEqualTo(4);
+  }
+
+  @Test
+  void shouldReturnTheWholeSliceWithoutANextLinkWhenItFitsInOnePage() {
+    ResponseEntity<String> response = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards?after=", String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getHeaders().get(HttpHeaders.LINK)).isNull();
+
+    DocumentContext documentContext = JsonPath.parse(response.getBody());
+    JSONArray ids = documentContext.read("$..id");
+    assertThat(ids).containsExactly(100, 99, 101);
+  }
+
+  @Test
+  void shouldRejectAMalformedCursor() {
+    ResponseEntity<String> response = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards?after=not-a-cursor", String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  @Test
+  void shouldRejectACustomSortInKeysetMode() {
+    ResponseEntity<String> response = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards?after=&sort=amount,desc", String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  private static URI nextLink(ResponseEntity<?> response) {
+    String link = response.getHeaders().getFirst(HttpHeaders.LINK);
+    if (link == null) {
+      return null;
+    }
+    return URI.create(link.substring(link.indexOf('<') + 1, link.indexOf('>')));
+  }
+}
@@ -0,0 +1,130 @@
+package example.cashcard;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.jayway.jsonpath.JsonPath;
+
+import net.minidev.json.JSONArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+class CashCardListResponseTests {
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Test
+  void shouldServeListsWithAWeakETagThatClientsRevalidate() {
+    ResponseEntity<String> response = list("/cashcards", new HttpHeaders());
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getHeaders().getETag()).startsWith("W/\"");
+    assertThat(response.getHeaders().getCacheControl()).contains("no-cache").contains("private").doesNotContain("no-store");
+  }
+
+  @Test
+  void shouldAnswerAnUnchangedPageWithNotModifiedWithoutReadingTheDatabase() {
+    String eTag = list("/cashcards", new HttpHeaders()).getHeaders().getETag();
+    //-- Escrita por fora da aplicação: se o 304 dependesse do banco, a página teria mudado.
+    jdbcTemplate.update("UPDATE cash_card SET amount = 1 WHERE id = 99");
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setIfNoneMatch(eTag);
+    ResponseEntity<String> response = list("/cashcards", headers);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(response.getHeaders().getETag()).isEqualTo(eTag);
+    assertThat(response.getBody()).isNull();
+  }
+
+  @Test
+  void shouldChangeTheETagWhenTheOwnerWrites() {
+    String eTag = list("/cashcards", new HttpHeaders()).getHeaders().getETag();
+    restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .exchange("/cashcards/99", HttpMethod.PUT, new HttpEntity<>(CashCard.ofAmount(null, 19.99, null)), Void.class);
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setIfNoneMatch(eTag);
+    ResponseEntity<String> response = list("/cashcards", headers);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getHeaders().getETag()).isNotEqualTo(eTag);
+    JSONArray amounts = JsonPath.parse(response.getBody()).read("$..amount");
+    assertThat(amounts).contains(19.99);
+  }
+
+  @Test
+  void shouldGiveEachPageAndEachOwnerItsOwnETag() {
+    String firstPage = list("/cashcards?page=0&size=1", new HttpHeaders()).getHeaders().getETag();
+    String secondPage = list("/cashcards?page=1&size=1", new HttpHeaders()).getHeaders().getETag();
+    String keyset = list("/cashcards?after=&size=1", new HttpHeaders()).getHeaders().getETag();
+    String otherOwner = restTemplate
+      .withBasicAuth("kumar2", "xyz789")
+      .getForEntity("/cashcards?page=0&size=1", String.class)
+      .getHeaders().getETag();
+
+    assertThat(firstPage).isNotEqualTo(secondPage).isNotEqualTo(keyset).isNotEqualTo(otherOwner);
+    //-- Uma escrita da kumar2 não invalida as páginas da sarah1.
+    restTemplate
+      .withBasicAuth("kumar2", "xyz789")
+      .exchange("/cashcards/102", HttpMethod.PUT, new HttpEntity<>(CashCard.ofAmount(null, 1.00, null)), Void.class);
+    assertThat(list("/cashcards?page=0&size=1", new HttpHeaders()).getHeaders().getETag()).isEqualTo(firstPage);
+  }
+
+  @Test
+  void shouldGzipLargeListsForClientsThatAcceptIt() throws IOException {
+    StringBuilder batch = new StringBuilder("[");
+    for (int i = 0; i < 50; i++) {
+      batch.append(i == 0 ? "" : ",").append("{ \"op\": \"create\", \"amount\": 10.10 }");
+    }
+    restTemplate.withBasicAuth("sarah1", "abc123").exchange(RequestEntity
+      .post(URI.create("/cashcards/batch"))
+      .contentType(MediaType.APPLICATION_JSON)
+      .body(batch.append("]").toString()), String.class);
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+    ResponseEntity<byte[]> compressed = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .exchange("/cashcards?size=50", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    ResponseEntity<String> plain = list("/cashcards?size=50", new HttpHeaders());
+
+    assertThat(compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    assertThat(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+    try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed.getBody()))) {
+      assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(plain.getBody());
+    }
+    assertThat(compressed.getBody().length).isLessThan(plain.getBody().length() / 2);
+  }
+
+  private ResponseEntity<String> list(String uri, HttpHeaders headers) {
+    return restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+  }
+}
@@ -0,0 +1,213 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.UserDetailsManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Carga mista contra a aplicação inteira (HTTP, SecurityConfig com rate limit, cache, escritores, H2), com muitos
+// owners e uma massa sintética, para planejar capacidade e pegar regressões. Por operação: vazão, p50/p99/p99.9 e
+// taxa de erro; o total e cada operação também vão para target/load-test/cashcard-load.csv, para comparar execuções.
+// Roda só com -Pload-test:
+//   ./mvnw test -Pload-test -Dtest=CashCardLoadTest
+// Parâmetros:
+//   -Dload.owners, -Dload.cards-per-owner   massa inicial (owners x cartões, inseridos direto no banco)
+//   -Dload.concurrency, -Dload.seconds      usuários virtuais em malha fechada e duração da medição
+//   -Dload.mix                              pesos das operações, por exemplo get:50,list:25,summary:5,create:8,update:10,delete:2
+//   -Dload.auth                             token (Bearer, padrão) ou basic (HTTP Basic, com o AuthenticationCache)
+//   -Dload.min-throughput                   falha se o total ficar abaixo disso (req/s), para uso em CI
+// Cada usuário virtual cuida só dos owners com número ≡ ao seu (mod concurrency) e guarda os ids deles, então
+// nenhum apaga o cartão que outro vai ler; qualquer 4xx/5xx é erro de verdade, inclusive um 429 do rate limit.
+@Tag("load")
+class CashCardLoadTest {
+  private static final int OWNERS = Integer.getInteger("load.owners", 1000);
+  private static final int CARDS_PER_OWNER = Integer.getInteger("load.cards-per-owner", 20);
+  private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+  private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 30));
+  private static final Duration WARMUP = Duration.ofSeconds(10);
+  private static final String MIX = System.getProperty("load.mix", "get:50,list:25,summary:5,create:8,update:10,delete:2");
+  private static final boolean BASIC_AUTH = "basic".equals(System.getProperty("load.auth", "token"));
+  private static final double MIN_THROUGHPUT = Double.parseDouble(System.getProperty("load.min-throughput", "0"));
+  private static final String PASSWORD = "load-test";
+  private static final long FIRST_ID = 1000;
+
+  @Test
+  void shouldSustainAMixedWorkloadForManyOwners() throws Exception {
+    assertThat(OWNERS).as("every virtual user needs at least one owner").isGreaterThanOrEqualTo(CONCURRENCY);
+    String[] operations = operations(MIX);
+
+    try (ConfigurableApplicationContext app = new SpringApplicationBuilder(CashcardApplication.class)
+        .properties("server.port=0")
+        .run()) {
+      seed(app.getBean(JdbcTemplate.class));
+      int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+      HttpLoadDriver driver = new HttpLoadDriver(URI.create("http://localhost:" + port), CONCURRENCY, WARMUP, DURATION);
+      Owner[] owners = owners(app, driver);
+      VirtualUser[] users = IntStream.range(0, CONCURRENCY)
+        .mapToObj(i -> new VirtualUser(i, owners, driver))
+        .toArray(VirtualUser[]::new);
+
+      Map<String, HttpLoadDriver.LoadReport> reports = driver.runMix("mixed", user -> users[user].next(operations));
+      reports.values().forEach(System.out::println);
+      write(reports);
+
+      HttpLoadDriver.LoadReport total = reports.get("mixed");
+      assertThat(total.errors()).isZero();
+      assertThat(total.throughput()).isGreaterThanOrEqualTo(MIN_THROUGHPUT);
+    }
+  }
+
+  // Cartão i do owner o tem id FIRST_ID + o + i * OWNERS; o IDENTITY continua depois do último.
+  private static void seed(JdbcTemplate jdbcTemplate) {
+    long rows = (long) OWNERS * CARDS_PER_OWNER;
+    jdbcTemplate.update("""
+        INSERT INTO cash_card(ID, AMOUNT, OWNER)
+        SELECT X + ?, MOD(X * 7919, 100000), 'owner' || MOD(X, ?) FROM SYSTEM_RANGE(0, ?)
+        """, FIRST_ID, OWNERS, rows - 1);
+    jdbcTemplate.update("""
+        MERGE INTO cash_card_summary(OWNER, CARD_COUNT, TOTAL, MIN_AMOUNT, MAX_AMOUNT) KEY(OWNER)
+        SELECT OWNER, COUNT(*), SUM(AMOUNT), MIN(AMOUNT), MAX(AMOUNT) FROM cash_card WHERE ID >= ? GROUP BY OWNER
+        """, FIRST_ID);
+    jdbcTemplate.execute("ALTER TABLE cash_card ALTER COLUMN id RESTART WITH " + (FIRST_ID + rows));
+    jdbcTemplate.execute("ANALYZE");
+  }
+
+  // Com token, cada owner recebe um do próprio SignedTokens (o mesmo que POST /auth/token emitiria). Com Basic,
+  // todos compartilham um hash BCrypt, e uma requisição por owner antes da carga deixa a senha no AuthenticationCache.
+  private static Owner[] owners(ConfigurableApplicationContext app, HttpLoadDriver driver) {
+    UserDetailsManager users = app.getBean(UserDetailsManager.class);
+    String passwordHash = app.getBean(PasswordEncoder.class).encode(PASSWORD);
+    SignedTokens signedTokens = app.getBean(SignedTokens.class);
+    Owner[] owners = new Owner[OWNERS];
+    for (int o = 0; o < OWNERS; o++) {
+      String name = "owner" + o;
+      users.createUser(User.withUsername(name).password(passwordHash).roles("CARD-OWNER").build());
+      List<Long> ids = new ArrayList<>(CARDS_PER_OWNER * 2);
+      for (int i = 0; i < CARDS_PER_OWNER; i++) {
+        ids.add(FIRST_ID + o + (long) i * OWNERS);
+      }
+      owners[o] = new Owner(name, signedTokens.issue(name, AuthorityUtils.createAuthorityList("ROLE_CARD-OWNER")), ids);
+    }
+    if (BASIC_AUTH) {
+      IntStream.range(0, OWNERS).parallel().forEach(o -> {
+        try {
+          assertThat(driver.prime(owners[o].request(driver, "/cashcards/summary").GET().build())).isEqualTo(200);
+        } catch (IOException | InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+    }
+    return owners;
+  }
+
+  // "get:50,list:25" vira um vetor com 50 "get" e 25 "list"; sortear uma posição sorteia a operação com esses pesos.
+  private static String[] operations(String mix) {
+    List<String> operations = new ArrayList<>();
+    for (String entry : mix.split(",")) {
+      String[] weighted = entry.trim().split(":");
+      for (int i = 0; i < Integer.parseInt(weighted[1]); i++) {
+        operations.add(weighted[0]);
+      }
+    }
+    return operations.toArray(String[]::new);
+  }
+
+  private static void write(Map<String, HttpLoadDriver.LoadReport> reports) throws IOException {
+    Path csv = Path.of("target", "load-test", "cashcard-load.csv");
+    Files.createDirectories(csv.getParent());
+    List<String> lines = new ArrayList<>();
+    lines.add("operation,requests,throughput_rps,p50_ms,p99_ms,p999_ms,error_rate");
+    for (HttpLoadDriver.LoadReport report : reports.values()) {
+      lines.add(String.format(Locale.ROOT, "%s,%d,%.1f,%.3f,%.3f,%.3f,%.5f", report.name(), report.requests(),
+        report.throughput(), millis(report.percentile(50)), millis(report.percentile(99)), millis(report.percentile(99.9)),
+        report.errorRate()));
+    }
+    Files.write(csv, lines);
+  }
+
+  private static double millis(Duration duration) {
+    return duration.toNanos() / 1e6;
+  }
+
+  private record Owner(String name, String token, List<Long> ids) {
+    HttpRequest.Builder request(HttpLoadDriver driver, String path) {
+      return BASIC_AUTH ? driver.request(path, name, PASSWORD) : driver.request(path, token);
+    }
+  }
+
+  private static final class VirtualUser {
+    private final List<Owner> owners = new ArrayList<>();
+    private final HttpLoadDriver driver;
+
+    VirtualUser(int index, Owner[] all, HttpLoadDriver driver) {
+      this.driver = driver;
+      for (int o = index; o < all.length; o += CONCURRENCY) {
+        owners.add(all[o]);
+      }
+    }
+
+    HttpLoadDriver.Step next(String[] operations) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      Owner owner = owners.get(random.nextInt(owners.size()));
+      String operation = operations[random.nextInt(operations.length)];
+      //-- Sem cartões, as operações sobre um id viram uma criação.
+      if (owner.ids().isEmpty() && (operation.equals("get") || operation.equals("update") || operation.equals("delete"))) {
+        operation = "create";
+      }
+      long amountInCents = random.nextLong(1, 100_000);
+      String amount = CashCardAmount.toPlainString(amountInCents);
+
+      return switch (operation) {
+        case "get" -> step(operation, owner.request(driver, "/cashcards/" + anyId(owner, random)).GET());
+        case "list" -> step(operation, owner.request(driver,
+          "/cashcards?page=" + random.nextInt(Math.max(1, owner.ids().size() / 20)) + "&size=20").GET());
+        case "summary" -> step(operation, owner.request(driver, "/cashcards/summary").GET());
+        case "create" -> new HttpLoadDriver.Step(operation, json(owner.request(driver, "/cashcards"), "POST", amount).build(),
+          response -> response.headers().firstValue("Location")
+            .ifPresent(location -> owner.ids().add(Long.valueOf(location.substring(location.lastIndexOf('/') + 1)))));
+        case "update" -> step(operation, json(owner.request(driver, "/cashcards/" + anyId(owner, random)), "PUT", amount));
+        case "delete" -> {
+          //-- Sai da lista antes de a requisição ir, para nenhuma operação seguinte deste usuário mirar o cartão.
+          Long id = owner.ids().remove(random.nextInt(owner.ids().size()));
+          yield step(operation, owner.request(driver, "/cashcards/" + id).DELETE());
+        }
+        default -> throw new IllegalArgumentException("unknown operation in load.mix: " + operation);
+      };
+    }
+
+    private static long anyId(Owner owner, ThreadLocalRandom random) {
+      return owner.ids().get(random.nextInt(owner.ids().size()));
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder request, String method, String amount) {
+      return request
+        .header("Content-Type", "application/json")
+        .method(method, HttpRequest.BodyPublishers.ofString("{\"amount\": " + amount + "}"));
+    }
+
+    private static HttpLoadDriver.Step step(String operation, HttpRequest.Builder request) {
+      return new HttpLoadDriver.Step(operation, request.build(), null);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package example.cashcard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class CashCardMetricsTests {
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @BeforeEach
+  void generateTraffic() {
+    restTemplate.withBasicAuth("sarah1", "abc123").getForEntity("/cashcards/99", String.class);
+    restTemplate.withBasicAuth("sarah1", "abc123").getForEntity("/cashcards/1000", String.class);
+    restTemplate.withBasicAuth("sarah1", "abc123").getForEntity("/cashcards", String.class);
+    restTemplate.withBasicAuth("hank-owns-no-cards", "qrs456").getForEntity("/cashcards/99", String.class);
+  }
+
+  @Test
+  void shouldExposeMetricsWithoutCredentials() {
+    ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+  }
+
+  @Test
+  void shouldTagRequestTimersWithTheStatusAndPublishHistograms() {
+    String metrics = scrape();
+
+    assertThat(metrics)
+      .containsPattern("http_server_requests_seconds_count\\{.*status=\"200\".*uri=\"/cashcards/\\{requestedId\\}\"")
+      .containsPattern("http_server_requests_seconds_count\\{.*status=\"404\".*uri=\"/cashcards/\\{requestedId\\}\"")
+      .containsPattern("http_server_requests_seconds_count\\{.*status=\"403\"")
+      .containsPattern("http_server_requests_seconds_bucket\\{.*status=\"404\".*le=\"");
+  }
+
+  @Test
+  void shouldTimeHandlersSeparatelyFromAuthentication() {
+    String metrics = scrape();
+
+    assertThat(metrics)
+      .containsPattern("cashcard_handler_seconds_count\\{.*handler=\"findById\".*status=\"404\"")
+      .containsPattern("cashcard_handler_seconds_count\\{.*handler=\"findAll\".*status=\"200\"")
+      .doesNotContainPattern("cashcard_handler_seconds_count\\{.*status=\"403\"")
+      .containsPattern("spring_security_authentications_seconds_bucket\\{.*le=\"");
+  }
+
+  @Test
+  void shouldTimeRepositoryCallsAndConnectionPoolWaits() {
+    String metrics = scrape();
+
+    assertThat(metrics)
+      .containsPattern("spring_data_repository_invocations_seconds_count\\{.*method=\"findByIdAndOwner\".*repository=\"CashCardRepository\"")
+      .containsPattern("spring_data_repository_invocations_seconds_count\\{.*method=\"findPageByOwner\"")
+      .containsPattern("hikaricp_connections_acquire_seconds_bucket\\{.*le=\"")
+      .containsPattern("cache_gets_total\\{cache=\"authentications\",result=\"hit\"")
+      .containsPattern("cache_gets_total\\{cache=\"cashcards\".*result=\"miss\"");
+  }
+
+  private String scrape() {
+    return restTemplate.getForObject("/actuator/prometheus", String.class);
+  }
+}
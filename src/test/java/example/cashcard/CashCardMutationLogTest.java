@@ -0,0 +1,138 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import example.cashcard.CashCardMutation.Type;
+import example.cashcard.CashCardMutationLog.FsyncPolicy;
+import example.cashcard.CashCardMutationLog.OverflowPolicy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CashCardMutationLogTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  void shouldReplayEveryMutationInOrderAcrossSegments() throws IOException {
+    //-- Segmentos de 1 KB forçam várias rolagens.
+    CashCardMutationLog mutationLog = mutationLog(1000, DataSize.ofKilobytes(1), OverflowPolicy.DROP);
+    mutationLog.start();
+    List<CashCardMutation> appended = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      CashCardMutation mutation = new CashCardMutation(1_700_000_000_000L + i, Type.values()[i % 3], 1000 + i, 0, "sarah1", i * 125L);
+      appended.add(mutation);
+      mutationLog.append(mutation);
+    }
+    mutationLog.stop();
+
+    List<CashCardMutation> replayed = new ArrayList<>();
+    assertThat(CashCardMutationLogReader.replay(directory, replayed::add)).isEqualTo(200);
+    assertThat(replayed).containsExactlyElementsOf(appended);
+    assertThat(CashCardMutationLogReader.segments(directory)).hasSizeGreaterThan(1);
+    assertThat(mutationLog.writtenCount()).isEqualTo(200);
+    assertThat(mutationLog.queueDepth()).isZero();
+  }
+
+  //-- Dois PUTs no mesmo cartão confirmados na ordem v1, v2 podem chegar ao log como v2, v1.
+  @Test
+  void shouldEndEachCashCardAtItsNewestVersionWhenWritesReachTheLogOutOfOrder() throws IOException {
+    CashCardMutationLog mutationLog = mutationLog(10, DataSize.ofMegabytes(1), OverflowPolicy.DROP);
+    mutationLog.start();
+    CashCardMutation created = CashCardMutation.now(Type.CREATE, 1000, 0, "sarah1", 100);
+    CashCardMutation second = CashCardMutation.now(Type.UPDATE, 1000, 2, "sarah1", 300);
+    CashCardMutation first = CashCardMutation.now(Type.UPDATE, 1000, 1, "sarah1", 200);
+    CashCardMutation other = CashCardMutation.now(Type.UPDATE, 1001, 1, "sarah1", 400);
+    List.of(created, second, first, other).forEach(mutationLog::append);
+    mutationLog.stop();
+
+    List<CashCardMutation> replayed = new ArrayList<>();
+    assertThat(CashCardMutationLogReader.replay(directory, replayed::add)).isEqualTo(3);
+    assertThat(replayed).containsExactly(created, second, other);
+  }
+
+  @Test
+  void shouldDropMutationsThatDoNotFitInTheQueue() throws IOException {
+    CashCardMutationLog mutationLog = mutationLog(2, DataSize.ofMegabytes(1), OverflowPolicy.DROP);
+    mutationLog.append(CashCardMutation.now(Type.CREATE, 1000, 0, "sarah1", 100));
+    mutationLog.append(CashCardMutation.now(Type.CREATE, 1001, 0, "sarah1", 200));
+    mutationLog.append(CashCardMutation.now(Type.CREATE, 1002, 0, "sarah1", 300));
+
+    assertThat(mutationLog.queueDepth()).isEqualTo(2);
+    assertThat(mutationLog.droppedCount()).isEqualTo(1);
+    assertThat(mutationLog.backpressureCount()).isZero();
+
+    mutationLog.start();
+    mutationLog.stop();
+    assertThat(CashCardMutationLogReader.replay(directory, mutation -> { })).isEqualTo(2);
+  }
+
+  @Test
+  void shouldWaitForRoomBeforeDroppingWhenConfiguredTo() {
+    CashCardMutationLog mutationLog = mutationLog(1, DataSize.ofMegabytes(1), OverflowPolicy.WAIT);
+    mutationLog.append(CashCardMutation.now(Type.CREATE, 1000, 0, "sarah1", 100));
+    mutationLog.append(CashCardMutation.now(Type.CREATE, 1001, 0, "sarah1", 200));
+
+    assertThat(mutationLog.backpressureCount()).isEqualTo(1);
+    assertThat(mutationLog.droppedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldStopReadingASegmentAtATornRecord() throws IOException {
+    CashCardMutationLog mutationLog = mutationLog(10, DataSize.ofMegabytes(1), OverflowPolicy.DROP);
+    mutationLog.start();
+    mutationLog.append(CashCardMutation.now(Type.CREATE, 1000, 0, "sarah1", 100));
+    mutationLog.append(CashCardMutation.now(Type.UPDATE, 1000, 1, "sarah1", 200));
+    mutationLog.stop();
+
+    //-- Corrompe um byte do payload do segundo registro, como uma escrita que não chegou inteira ao disco.
+    Path segment = CashCardMutationLogReader.segments(directory).get(0);
+    byte[] bytes = Files.readAllBytes(segment);
+    int firstRecord = CashCardMutationLogReader.HEADER_BYTES + CashCardMutation.FIXED_PAYLOAD_BYTES + "sarah1".length();
+    bytes[firstRecord + CashCardMutationLogReader.HEADER_BYTES] ^= 1;
+    Files.write(segment, bytes);
+
+    List<CashCardMutation> replayed = new ArrayList<>();
+    assertThat(CashCardMutationLogReader.replay(directory, replayed::add)).isEqualTo(1);
+    assertThat(replayed.get(0).type()).isEqualTo(Type.CREATE);
+  }
+
+  //-- Em outra JVM, só com as classes da aplicação no classpath: a ferramenta não pode depender do Spring.
+  @Test
+  void shouldPrintTheLogFromTheCommandLineWithoutSpringOnTheClasspath() throws Exception {
+    CashCardMutationLog mutationLog = mutationLog(10, DataSize.ofMegabytes(1), OverflowPolicy.DROP);
+    mutationLog.start();
+    mutationLog.append(new CashCardMutation(1_700_000_000_000L, Type.CREATE, 1000, 0, "sarah1", 12345));
+    mutationLog.append(new CashCardMutation(1_700_000_000_001L, Type.UPDATE, 1001, 3, "kumar2", 50));
+    mutationLog.append(new CashCardMutation(1_700_000_000_002L, Type.DELETE, 1000, 1, "sarah1", 12345));
+    mutationLog.stop();
+
+    Path classes = Path.of(CashCardMutationLogReader.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+        "-cp", classes.toString(), CashCardMutationLogReader.class.getName(), directory.toString(), "sarah1")
+      .redirectErrorStream(true)
+      .start();
+    String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+    assertThat(process.waitFor(30, TimeUnit.SECONDS)).isTrue();
+    assertThat(process.exitValue()).as(output).isZero();
+    assertThat(output.lines()).containsExactly(
+      "2023-11-14T22:13:20Z CREATE 1000 v0 sarah1 123.45",
+      "2023-11-14T22:13:20.002Z DELETE 1000 v1 sarah1 123.45");
+  }
+
+  private CashCardMutationLog mutationLog(int queueCapacity, DataSize segmentSize, OverflowPolicy overflowPolicy) {
+    return new CashCardMutationLog(true, directory, queueCapacity, 64, segmentSize, FsyncPolicy.BATCH,
+      Duration.ofSeconds(1), overflowPolicy, Duration.ofMillis(5));
+  }
+}
@@ -0,0 +1,77 @@
+package example.cashcard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.jayway.jsonpath.JsonPath;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//-- Uma escrita a cada 100 segundos: nenhum token volta durante o teste.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+  "cashcard.ratelimit.write.requests-per-second=0.01",
+  "cashcard.ratelimit.write.burst=2"
+})
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+class CashCardRateLimitTests {
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @Test
+  void shouldRejectWritesOverTheBurstWithRetryAfter() {
+    assertThat(update("sarah1", "abc123", 99).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+    assertThat(update("sarah1", "abc123", 100).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+    ResponseEntity<Void> rejected = update("sarah1", "abc123", 101);
+    assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    assertThat(Long.parseLong(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isBetween(1L, 100L);
+    assertThat(meterRegistry.get("cashcard.ratelimit.rejected").tag("limit", "write").counter().count()).isEqualTo(1);
+
+    //-- A escrita recusada não chegou ao banco.
+    ResponseEntity<String> cashCard = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards/101", String.class);
+    assertThat(JsonPath.parse(cashCard.getBody()).read("$.amount", Double.class)).isEqualTo(150.00);
+  }
+
+  @Test
+  void shouldKeepReadsAndOtherOwnersOutOfTheWriteLimit() {
+    update("sarah1", "abc123", 99);
+    update("sarah1", "abc123", 100);
+    assertThat(update("sarah1", "abc123", 101).getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+    ResponseEntity<String> read = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards", String.class);
+    assertThat(read.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(update("kumar2", "xyz789", 102).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+  }
+
+  @Test
+  void shouldNotCountRequestsThatFailAuthentication() {
+    for (int i = 0; i < 3; i++) {
+      assertThat(update("sarah1", "BAD-PASSWORD", 99).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+    assertThat(update("sarah1", "abc123", 99).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+  }
+
+  private ResponseEntity<Void> update(String username, String password, long id) {
+    return restTemplate
+      .withBasicAuth(username, password)
+      .exchange("/cashcards/" + id, HttpMethod.PUT, new HttpEntity<>(CashCard.ofAmount(null, 19.99, null)), Void.class);
+  }
+}
@@ -0,0 +1,222 @@
+package example.cashcard;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Chama cada método do CashCardRepository, captura no DataSource o SQL e os parâmetros que ele realmente executou
+// (escrito à mão no @Query ou gerado pelo Spring Data JDBC) e roda EXPLAIN no H2 com eles. Garante que nenhum faz
+// varredura completa da tabela nem ordena as linhas de um owner em memória; se uma consulta mudar, o plano testado muda junto.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class CashCardRepositoryQueryPlanTest {
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  CashCardRepository cashCardRepository;
+
+  //-- Com só 4 linhas o otimizador escolhe qualquer índice; com um volume parecido com o de produção e estatísticas atualizadas os planos ficam representativos.
+  @BeforeEach
+  void seedManyOwners() {
+    Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cash_card", Integer.class);
+    if (rows < 1000) {
+      jdbcTemplate.update("""
+          INSERT INTO cash_card(ID, AMOUNT, OWNER)
+          SELECT X + 1000, MOD(X * 7919, 100000), 'owner' || MOD(X, 100) FROM SYSTEM_RANGE(1, 20000)
+          """);
+      jdbcTemplate.execute("ANALYZE");
+    }
+    RecordingDataSource.STATEMENTS.clear();
+  }
+
+  @Test
+  void findByIdAndOwnerShouldUseThePrimaryKey() {
+    cashCardRepository.findByIdAndOwner(99L, "sarah1");
+
+    assertThat(explainOnly()).contains("PRIMARY_KEY").doesNotContain("tableScan");
+  }
+
+  @Test
+  void existsByIdAndOwnerShouldUseThePrimaryKey() {
+    cashCardRepository.existsByIdAndOwner(99L, "sarah1");
+
+    assertThat(explainOnly()).contains("PRIMARY_KEY").doesNotContain("tableScan");
+  }
+
+  @Test
+  void findPageByOwnerShouldReadRowsInOrderFromTheOwnerIndex() {
+    cashCardRepository.findPageByOwner("owner1", PageRequest.of(0, 20, Sort.by("amount")));
+
+    List<ExecutedStatement> statements = RecordingDataSource.STATEMENTS;
+    assertThat(statements).hasSize(2);
+    assertThat(explain(statements.get(0)))
+      .contains("CASH_CARD_OWNER_AMOUNT_ID: OWNER = ?1", "/* index sorted */")
+      .doesNotContain("tableScan");
+    //-- A primeira página veio cheia, então o total saiu de um COUNT(*), também pelo índice do owner.
+    assertThat(statements.get(1).sql()).contains("COUNT(*)");
+    assertThat(explain(statements.get(1))).contains("CASH_CARD_OWNER_AMOUNT_ID: OWNER = ?1").doesNotContain("tableScan");
+  }
+
+  @Test
+  void findPageByOwnerShouldAlsoReadDescendingPagesInIndexOrder() {
+    cashCardRepository.findPageByOwner("owner1", PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "amount")));
+
+    assertThat(explain(RecordingDataSource.STATEMENTS.get(0)))
+      .contains("CASH_CARD_OWNER_AMOUNT_ID: OWNER = ?1", "/* index sorted */")
+      .doesNotContain("tableScan");
+  }
+
+  @Test
+  void findFirstSliceByOwnerShouldReadRowsInOrderFromTheOwnerIndex() {
+    cashCardRepository.findFirstSliceByOwner("owner1", 20);
+
+    assertThat(explainOnly()).contains("CASH_CARD_OWNER_AMOUNT_ID: OWNER = ?1", "/* index sorted */").doesNotContain("tableScan");
+  }
+
+  @Test
+  void findSliceByOwnerAfterShouldSeekIntoTheOwnerIndex() {
+    cashCardRepository.findSliceByOwnerAfter("owner1", 100L, 100L, 20);
+
+    assertThat(explainOnly())
+      .contains("CASH_CARD_OWNER_AMOUNT_ID: OWNER = ?1", "AMOUNT >= ?2", "/* index sorted */")
+      .doesNotContain("tableScan");
+  }
+
+  @Test
+  void streamByOwnerShouldReadRowsInOrderFromTheOwnerIndex() {
+    try (var cashCards = cashCardRepository.streamByOwner("owner1")) {
+      cashCards.findFirst();
+    }
+
+    assertThat(explainOnly()).contains("CASH_CARD_OWNER_AMOUNT_ID: OWNER = ?1", "/* index sorted */").doesNotContain("tableScan");
+  }
+
+  @Test
+  void updateAmountByIdAndOwnerShouldUseThePrimaryKey() {
+    cashCardRepository.updateAmountByIdAndOwner(99L, "sarah1", 500L);
+
+    assertThat(explainOnly()).contains("PRIMARY_KEY").doesNotContain("tableScan");
+  }
+
+  @Test
+  void updateAmountByIdAndOwnerAndVersionShouldUseThePrimaryKey() {
+    cashCardRepository.updateAmountByIdAndOwnerAndVersion(99L, "sarah1", 0L, 500L);
+
+    assertThat(explainOnly()).contains("PRIMARY_KEY").doesNotContain("tableScan");
+  }
+
+  @Test
+  void deleteByIdAndOwnerShouldUseThePrimaryKey() {
+    cashCardRepository.deleteByIdAndOwner(1001L, "owner1");
+
+    assertThat(explainOnly()).contains("PRIMARY_KEY").doesNotContain("tableScan");
+  }
+
+  private String explainOnly() {
+    assertThat(RecordingDataSource.STATEMENTS).hasSize(1);
+    return explain(RecordingDataSource.STATEMENTS.get(0));
+  }
+
+  //-- Para o SELECT ... FROM OLD TABLE (UPDATE/DELETE ...) o H2 só descreve a leitura da tabela de delta; o plano que
+  //-- importa é o do UPDATE/DELETE de dentro, que recebe os mesmos parâmetros.
+  private String explain(ExecutedStatement statement) {
+    String sql = statement.sql();
+    int deltaTable = sql.indexOf("OLD TABLE (");
+    if (deltaTable >= 0) {
+      sql = sql.substring(deltaTable + "OLD TABLE (".length(), sql.lastIndexOf(')'));
+    }
+    return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, statement.parameters()));
+  }
+
+  record ExecutedStatement(String sql, Object[] parameters) {}
+
+  // Guarda cada PreparedStatement executado, com os parâmetros na ordem dos "?".
+  @TestConfiguration(proxyBeanMethods = false)
+  static class RecordingDataSource {
+    static final List<ExecutedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Bean
+    static BeanPostProcessor recordingDataSource() {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+          if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+          }
+          return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+              return recording(super.getConnection());
+            }
+          };
+        }
+      };
+    }
+
+    private static Connection recording(Connection connection) {
+      return proxy(Connection.class, connection, (method, args, result) -> {
+        if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+          return recording(statement, (String) args[0]);
+        }
+        return result;
+      });
+    }
+
+    private static PreparedStatement recording(PreparedStatement statement, String sql) {
+      Map<Integer, Object> parameters = new TreeMap<>();
+      return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+        String name = method.getName();
+        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+          parameters.put(index, name.equals("setNull") ? null : args[1]);
+        } else if (name.startsWith("execute")) {
+          STATEMENTS.add(new ExecutedStatement(sql, new ArrayList<>(parameters.values()).toArray()));
+        }
+        return result;
+      });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+      return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+        try {
+          return interceptor.after(method, args, method.invoke(target, args));
+        } catch (InvocationTargetException e) {
+          throw e.getCause();
+        }
+      }));
+    }
+
+    @FunctionalInterface
+    private interface Interceptor {
+      Object after(Method method, Object[] args, Object result) throws Exception;
+    }
+  }
+}
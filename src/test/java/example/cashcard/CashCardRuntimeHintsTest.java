@@ -0,0 +1,39 @@
+package example.cashcard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CashCardRuntimeHintsTest {
+  private final RuntimeHints hints = new RuntimeHints();
+
+  CashCardRuntimeHintsTest() {
+    new CashCardRuntimeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  void shouldIncludeTheSqlScripts() {
+    assertThat(RuntimeHintsPredicates.resource().forResource("schema.sql")).accepts(hints);
+    assertThat(RuntimeHintsPredicates.resource().forResource("data.sql")).accepts(hints);
+  }
+
+  @Test
+  void shouldAllowTheReflectiveInstantiationOfMappersAndSerializers() {
+    assertThat(RuntimeHintsPredicates.reflection().onType(CashCardRowMapper.class)
+      .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(CashCardSerializer.class)
+      .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(CashCardAmount.Deserializer.class)
+      .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+  }
+
+  @Test
+  void shouldBindRequestBodies() {
+    assertThat(RuntimeHintsPredicates.reflection().onType(CashCard.class)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(CashCardRequest.class)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(CashCardBatchOperation.class)).accepts(hints);
+  }
+}
@@ -0,0 +1,111 @@
+package example.cashcard;
+
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.jayway.jsonpath.JsonPath;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("sharded")
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+class CashCardShardingTests {
+  private static final int OWNERS = 200;
+
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Autowired
+  OwnerShards ownerShards;
+
+  @Autowired
+  OwnerShardRebalancer rebalancer;
+
+  @Autowired
+  CashCardSummaryVerifier verifier;
+
+  @Test
+  void shouldKeepEveryOwnerOnItsOwnShard() {
+    ResponseEntity<String> response = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards/99", String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+    assertThat(cardsOn(ownerShards.shardFor("sarah1"), "sarah1")).isEqualTo(3);
+    assertThat(cardsOn(ownerShards.shardFor("kumar2"), "kumar2")).isEqualTo(1);
+    assertThat(cardsOnAllShards()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldGenerateIdsInTheRangeOfTheOwnersShard() {
+    ResponseEntity<Void> created = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .postForEntity("/cashcards", CashCard.ofAmount(null, 250.00, null), Void.class);
+    assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+    String location = created.getHeaders().getLocation().getPath();
+    long id = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+    assertThat(id >>> 48).isEqualTo(ownerShards.shardFor("sarah1"));
+    assertThat(restTemplate.withBasicAuth("sarah1", "abc123").getForEntity(location, String.class).getStatusCode())
+      .isEqualTo(HttpStatus.OK);
+  }
+
+  @Test
+  void shouldMoveOwnersToAnAddedShardWithoutLosingCards() {
+    for (int i = 0; i < OWNERS; i++) {
+      String owner = "owner" + i;
+      try (OwnerShards.Binding binding = ownerShards.bindOwner(owner)) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(ownerShards.current());
+        jdbcTemplate.update("INSERT INTO cash_card (amount, owner) VALUES (100, ?), (250, ?)", owner, owner);
+        jdbcTemplate.update("INSERT INTO cash_card_summary (owner, card_count, total, min_amount, max_amount) VALUES (?, 2, 350, 100, 250)", owner);
+      }
+    }
+
+    int moved = rebalancer.rebalance();
+    assertThat(moved).isZero();
+    DataSource fifthShard = DataSourceBuilder.create().url("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1").build();
+    assertThat(rebalancer.addShard(fifthShard)).isEqualTo(4);
+
+    assertThat(cardsOnAllShards()).isEqualTo(OWNERS * 2 + 4);
+    assertThat(cardsOn(4, null)).isPositive();
+    for (int i = 0; i < OWNERS; i++) {
+      String owner = "owner" + i;
+      assertThat(cardsOn(ownerShards.shardFor(owner), owner)).as(owner).isEqualTo(2);
+    }
+    assertThat(verifier.verifyAndRepair()).isEmpty();
+
+    ResponseEntity<String> summary = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .getForEntity("/cashcards/summary", String.class);
+    assertThat(JsonPath.parse(summary.getBody()).read("$.count", Integer.class)).isEqualTo(3);
+  }
+
+  private long cardsOn(int shard, String owner) {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(ownerShards.dataSource(shard));
+    return owner == null
+      ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cash_card", Long.class)
+      : jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cash_card WHERE owner = ?", Long.class, owner);
+  }
+
+  private long cardsOnAllShards() {
+    long cards = 0;
+    for (int shard = 0; shard < ownerShards.size(); shard++) {
+      cards += cardsOn(shard, null);
+    }
+    return cards;
+  }
+}
@@ -0,0 +1,186 @@
+package example.cashcard;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.UserDetailsManager;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+class CashCardSummaryTests {
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Autowired
+  CashCardSummaryVerifier verifier;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  UserDetailsManager users;
+
+  @Autowired
+  PasswordEncoder passwordEncoder;
+
+  @Autowired
+  CashCardWriter cashCardWriter;
+
+  @Autowired
+  CashCardSummaryRepository cashCardSummaryRepository;
+
+  @Autowired
+  TransactionTemplate transactionTemplate;
+
+  @Test
+  void shouldSummarizeTheCashCardsOfTheOwner() {
+    DocumentContext summary = summary("sarah1", "abc123");
+
+    assertThat(summary.read("$.count", Integer.class)).isEqualTo(3);
+    assertThat(summary.read("$.total", Double.class)).isEqualTo(274.45);
+    assertThat(summary.read("$.min", Double.class)).isEqualTo(1.00);
+    assertThat(summary.read("$.max", Double.class)).isEqualTo(150.00);
+  }
+
+  @Test
+  void shouldKeepTheSummaryInStepWithCreatesUpdatesAndDeletes() {
+    ResponseEntity<Void> created = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .postForEntity("/cashcards", CashCard.ofAmount(null, 250.00, null), Void.class);
+    assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .exchange("/cashcards/100", HttpMethod.PUT, new HttpEntity<>(CashCard.ofAmount(null, 20.00, null)), Void.class);
+    restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .exchange("/cashcards/101", HttpMethod.DELETE, null, Void.class);
+
+    DocumentContext summary = summary("sarah1", "abc123");
+    assertThat(summary.read("$.count", Integer.class)).isEqualTo(3);
+    assertThat(summary.read("$.total", Double.class)).isEqualTo(393.45);
+    assertThat(summary.read("$.min", Double.class)).isEqualTo(20.00);
+    assertThat(summary.read("$.max", Double.class)).isEqualTo(250.00);
+    assertThat(verifier.verifyAndRepair()).isEmpty();
+  }
+
+  @Test
+  void shouldIgnoreWritesThatDidNotHappen() {
+    restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .exchange("/cashcards/102", HttpMethod.PUT, new HttpEntity<>(CashCard.ofAmount(null, 1_000_000.00, null)), Void.class);
+    restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .exchange("/cashcards/99999", HttpMethod.DELETE, null, Void.class);
+
+    assertThat(summary("sarah1", "abc123").read("$.total", Double.class)).isEqualTo(274.45);
+    assertThat(summary("kumar2", "xyz789").read("$.total", Double.class)).isEqualTo(200.00);
+  }
+
+  @Test
+  void shouldKeepTheSummaryInStepWithBatches() {
+    RequestEntity<String> batch = RequestEntity
+      .post(URI.create("/cashcards/batch"))
+      .contentType(MediaType.APPLICATION_JSON)
+      .body("""
+          [
+            { "op": "create", "amount": 10.10 },
+            { "op": "update", "id": 99, "amount": 0.10 },
+            { "op": "update", "id": 99, "amount": 0.20 },
+            { "op": "delete", "id": 101 },
+            { "op": "delete", "id": 102 }
+          ]
+          """);
+    restTemplate.withBasicAuth("sarah1", "abc123").exchange(batch, String.class);
+
+    DocumentContext summary = summary("sarah1", "abc123");
+    assertThat(summary.read("$.count", Integer.class)).isEqualTo(3);
+    assertThat(summary.read("$.total", Double.class)).isEqualTo(11.30);
+    assertThat(summary.read("$.min", Double.class)).isEqualTo(0.20);
+    assertThat(summary.read("$.max", Double.class)).isEqualTo(10.10);
+    assertThat(verifier.verifyAndRepair()).isEmpty();
+  }
+
+  @Test
+  void shouldSurviveTwoConcurrentFirstWritesOfANewOwner() throws Exception {
+    //-- A primeira transação cria a linha do resumo e segura o commit até a segunda esbarrar nela.
+    CompletableFuture<CashCard> second = transactionTemplate.execute(status -> {
+      jdbcTemplate.update("INSERT INTO cash_card (amount, owner) VALUES (700, 'newcomer')");
+      CashCardSummaryDelta delta = new CashCardSummaryDelta();
+      delta.added(700);
+      cashCardSummaryRepository.applyDelta("newcomer", delta);
+
+      CompletableFuture<CashCard> concurrent = CompletableFuture.supplyAsync(() -> cashCardWriter.create("newcomer", 300));
+      try {
+        Thread.sleep(300);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return concurrent;
+    });
+
+    assertThat(second.get(10, TimeUnit.SECONDS).id()).isNotNull();
+    CashCardSummary summary = cashCardSummaryRepository.findByOwner("newcomer").orElseThrow();
+    assertThat(summary.count()).isEqualTo(2);
+    assertThat(summary.total()).isEqualTo(1000);
+    assertThat(summary.min()).isEqualTo(300);
+    assertThat(summary.max()).isEqualTo(700);
+    assertThat(verifier.verifyAndRepair()).isEmpty();
+  }
+
+  @Test
+  void shouldReturnAnEmptySummaryForAnOwnerWithoutCashCards() {
+    users.createUser(User.withUsername("ana3")
+      .password(passwordEncoder.encode("def456"))
+      .roles("CARD-OWNER")
+      .build());
+
+    DocumentContext summary = summary("ana3", "def456");
+
+    assertThat(summary.read("$.count", Integer.class)).isZero();
+    assertThat(summary.read("$.total", Double.class)).isZero();
+    assertThat(summary.read("$.min", Double.class)).isNull();
+  }
+
+  @Test
+  void shouldRebuildSummariesThatDriftedFromTheCashCards() {
+    jdbcTemplate.update("UPDATE cash_card SET amount = 500 WHERE id = 100");
+    jdbcTemplate.update("INSERT INTO cash_card (amount, owner) VALUES (700, 'newcomer')");
+
+    assertThat(verifier.verifyAndRepair()).containsExactlyInAnyOrder("sarah1", "newcomer");
+
+    DocumentContext summary = summary("sarah1", "abc123");
+    assertThat(summary.read("$.total", Double.class)).isEqualTo(278.45);
+    assertThat(summary.read("$.min", Double.class)).isEqualTo(5.00);
+    assertThat(verifier.verifyAndRepair()).isEmpty();
+  }
+
+  private DocumentContext summary(String username, String password) {
+    ResponseEntity<String> response = restTemplate
+      .withBasicAuth(username, password)
+      .getForEntity("/cashcards/summary", String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    return JsonPath.parse(response.getBody());
+  }
+}
@@ -0,0 +1,98 @@
+package example.cashcard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+class CashCardTokenAuthenticationTests {
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Test
+  void shouldIssueATokenForValidCredentials() {
+    ResponseEntity<String> response = restTemplate
+      .withBasicAuth("sarah1", "abc123")
+      .postForEntity("/auth/token", null, String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    DocumentContext body = JsonPath.parse(response.getBody());
+    assertThat(body.read("$.tokenType", String.class)).isEqualTo("Bearer");
+    assertThat(body.read("$.expiresIn", Long.class)).isEqualTo(900);
+    assertThat(body.read("$.token", String.class)).isNotBlank();
+  }
+
+  @Test
+  void shouldNotIssueATokenForBadCredentials() {
+    ResponseEntity<String> response = restTemplate
+      .withBasicAuth("sarah1", "BAD-PASSWORD")
+      .postForEntity("/auth/token", null, String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+  }
+
+  @Test
+  void shouldServeCashCardsOfTheTokenOwnerOnly() {
+    String token = token("sarah1", "abc123");
+
+    ResponseEntity<String> own = get("/cashcards/99", token);
+    assertThat(own.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(JsonPath.parse(own.getBody()).read("$.owner", String.class)).isEqualTo("sarah1");
+
+    assertThat(get("/cashcards/102", token).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  @Test
+  void shouldKeepTheRoleCheckForTokens() {
+    String token = token("hank-owns-no-cards", "qrs456");
+
+    assertThat(get("/cashcards/99", token).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+  }
+
+  @Test
+  void shouldRejectInvalidTokens() {
+    String token = token("sarah1", "abc123");
+
+    ResponseEntity<String> response = get("/cashcards/99", token.substring(0, token.length() - 2) + "xx");
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    assertThat(response.getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE)).contains("invalid_token");
+  }
+
+  @Test
+  void shouldNotIssueATokenForAToken() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setBearerAuth(token("sarah1", "abc123"));
+
+    ResponseEntity<String> response = restTemplate
+      .exchange("/auth/token", HttpMethod.POST, new HttpEntity<>(headers), String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+  }
+
+  private String token(String username, String password) {
+    String body = restTemplate
+      .withBasicAuth(username, password)
+      .postForObject("/auth/token", null, String.class);
+    return JsonPath.parse(body).read("$.token");
+  }
+
+  private ResponseEntity<String> get(String uri, String token) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setBearerAuth(token);
+    return restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+  }
+}
@@ -5,8 +5,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.ClassMode;
@@ -69,7 +71,7 @@ class CashcardApplicationTests {
 	@Test
 	@DirtiesContext
 	void shouldCreateANewCashCard() {
-		CashCard newCashCard = new CashCard(null, 250.00, null);
+		CashCard newCashCard = CashCard.ofAmount(null, 250.00, null);
 		ResponseEntity<Void> createResponse = restTemplate
 			.withBasicAuth("sarah1", "abc123")
 			.postForEntity("/cashcards", newCashCard, Void.class);
@@ -89,6 +91,28 @@ class CashcardApplicationTests {
 		assertThat(amount).isEqualTo(250.00);
 	}
 
+	@Test
+	void shouldRejectACashCardWithoutAnAmount() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+
+		ResponseEntity<Void> createResponse = restTemplate
+			.withBasicAuth("sarah1", "abc123")
+			.postForEntity("/cashcards", new HttpEntity<>("{\"owner\": \"sarah1\"}", headers), Void.class);
+		assertThat(createResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+		ResponseEntity<Void> updateResponse = restTemplate
+			.withBasicAuth("sarah1", "abc123")
+			.exchange("/cashcards/99", HttpMethod.PUT, new HttpEntity<>("{\"amount\": null}", headers), Void.class);
+		assertThat(updateResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+		ResponseEntity<String> getResponse = restTemplate
+			.withBasicAuth("sarah1", "abc123")
+			.getForEntity("/cashcards/99", String.class);
+		Double amount = JsonPath.parse(getResponse.getBody()).read("$.amount");
+		assertThat(amount).isEqualTo(123.45);
+	}
+
 	@Test
 	void shouldReutrnAllCashCardsWhernListIsRequested() {
 		ResponseEntity<String> response = restTemplate
@@ -175,7 +199,7 @@ class CashcardApplicationTests {
 	@Test
 	@DirtiesContext
 	void shouldUpdateAnExistingCashCard() {
-		CashCard cashCardUpdate = new CashCard(null, 19.99, null);
+		CashCard cashCardUpdate = CashCard.ofAmount(null, 19.99, null);
 		HttpEntity<CashCard> request = new HttpEntity<>(cashCardUpdate);
 		ResponseEntity<Void> response = restTemplate
 			.withBasicAuth("sarah1", "abc123")
@@ -198,7 +222,7 @@ class CashcardApplicationTests {
 
 	@Test
 	void shouldNotUpdateACashCardThatDoesNotExist() {
-		CashCard unknownCard = new CashCard(null, 19.99, null);
+		CashCard unknownCard = CashCard.ofAmount(null, 19.99, null);
 		HttpEntity<CashCard> request = new HttpEntity<>(unknownCard);
 		ResponseEntity<Void> response = restTemplate
 			.withBasicAuth("sarah1", "abc123")
@@ -209,7 +233,7 @@ class CashcardApplicationTests {
 
 	@Test
 	void shouldNotUpdateACashCardThatIsOwnedBySomeoneElse() {
-		CashCard kumarsCard = new CashCard(null, 333.33, null);
+		CashCard kumarsCard = CashCard.ofAmount(null, 333.33, null);
 		HttpEntity<CashCard> request = new HttpEntity<>(kumarsCard);
 		ResponseEntity<Void> response = restTemplate
 			.withBasicAuth("sarah1", "abc123")
@@ -0,0 +1,43 @@
+package example.cashcard;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+  private static final int OWNERS = 100_000;
+
+  @Test
+  void shouldSpreadOwnersEvenlyAcrossShards() {
+    ConsistentHashRing ring = new ConsistentHashRing(4);
+    int[] owners = new int[4];
+    for (int i = 0; i < OWNERS; i++) {
+      owners[ring.shardFor("owner" + i)]++;
+    }
+
+    //-- 160 pontos por shard: cada um fica a poucos por cento da média.
+    assertThat(IntStream.of(owners).boxed().toList()).allSatisfy(count -> assertThat(count).isBetween(OWNERS / 4 * 80 / 100, OWNERS / 4 * 120 / 100));
+  }
+
+  @Test
+  void shouldOnlyMoveOwnersToTheAddedShard() {
+    ConsistentHashRing before = new ConsistentHashRing(4);
+    ConsistentHashRing after = new ConsistentHashRing(5);
+
+    long moved = IntStream.range(0, OWNERS)
+      .mapToObj(i -> "owner" + i)
+      .filter(owner -> before.shardFor(owner) != after.shardFor(owner))
+      .peek(owner -> assertThat(after.shardFor(owner)).isEqualTo(4))
+      .count();
+
+    assertThat(moved).isBetween(OWNERS / 5 * 80 / 100L, OWNERS / 5 * 120 / 100L);
+  }
+
+  @Test
+  void shouldMapTheSameOwnerToTheSameShardEveryTime() {
+    assertThat(new ConsistentHashRing(8).shardFor("sarah1")).isEqualTo(new ConsistentHashRing(8).shardFor("sarah1"));
+    assertThat(new ConsistentHashRing(1).shardFor("sarah1")).isZero();
+  }
+}
@@ -0,0 +1,97 @@
+package example.cashcard;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compara o modo padrão (pool de threads de plataforma do Tomcat) com o modo virtual-threads sob um banco lento.
+// Roda só com -Pload-test; o modo virtual precisa de um JDK 21:
+//   JAVA_HOME=<jdk-21> ./mvnw test -Pjdk21,load-test -Dtest=ExecutionModeLoadTest
+// Parâmetros: -Dload.concurrency, -Dload.seconds, -Dload.db-latency-ms e -Dload.pool-size (o mesmo pool de
+// conexões nos dois modos, para que a diferença medida seja só a das threads).
+@Tag("load")
+class ExecutionModeLoadTest {
+  private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 1000);
+  private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 15));
+  private static final Duration WARMUP = Duration.ofSeconds(5);
+  private static final long DB_LATENCY_MILLIS = Long.getLong("load.db-latency-ms", 20);
+  private static final int POOL_SIZE = Integer.getInteger("load.pool-size", 10);
+
+  @Test
+  void shouldCompareThroughputOfPlatformAndVirtualThreads() throws Exception {
+    HttpLoadDriver.LoadReport platform = runAgainst("platform-threads", "default");
+    System.out.println(platform);
+    assertThat(platform.errors()).isZero();
+
+    if (Runtime.version().feature() < 21) {
+      System.out.println("virtual-threads              skipped: needs a JDK 21 runtime");
+      return;
+    }
+    HttpLoadDriver.LoadReport virtual = runAgainst("virtual-threads", "virtual-threads");
+    System.out.println(virtual);
+    assertThat(virtual.errors()).isZero();
+  }
+
+  private HttpLoadDriver.LoadReport runAgainst(String name, String profile) throws Exception {
+    try (ConfigurableApplicationContext app = new SpringApplicationBuilder(CashcardApplication.class, SlowDatabase.class)
+        .profiles(profile)
+        //-- Todos os usuários virtuais são o mesmo owner; aqui o que se mede é o servidor, não o limite por owner.
+        .properties("server.port=0", "cashcard.ratelimit.enabled=false",
+            "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE, "spring.datasource.hikari.minimum-idle=" + POOL_SIZE)
+        .run()) {
+      int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+      HttpLoadDriver driver = new HttpLoadDriver(URI.create("http://localhost:" + port), CONCURRENCY, WARMUP, DURATION);
+
+      //-- A listagem sempre vai ao banco (o GET por id seria servido pelo CashCardCache).
+      HttpRequest listCashCards = driver.request("/cashcards", "sarah1", "abc123").GET().build();
+      //-- Uma requisição antes da carga deixa a credencial no AuthenticationCache; senão os primeiros
+      //-- CONCURRENCY pedidos rodariam o BCrypt todos ao mesmo tempo e a medição seria só disso.
+      assertThat(driver.prime(listCashCards)).isEqualTo(200);
+      return driver.run(name, user -> listCashCards);
+    }
+  }
+
+  // Simula um banco lento: cada conexão fica presa por DB_LATENCY_MILLIS antes de ser usada.
+  @Configuration(proxyBeanMethods = false)
+  static class SlowDatabase {
+    @Bean
+    static BeanPostProcessor slowDataSource() {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+          if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+          }
+          return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+              Connection connection = super.getConnection();
+              try {
+                Thread.sleep(DB_LATENCY_MILLIS);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return connection;
+            }
+          };
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,207 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+// Gerador de carga em malha fechada para os testes com @Tag("load"): cada um dos `concurrency` usuários
+// só envia a próxima requisição quando a anterior responde. Respostas 4xx/5xx e falhas de conexão contam como erro.
+// Um usuário virtual nunca tem duas requisições em andamento, então o estado que ele guarda entre uma e outra
+// (em runMix, via Step.onResponse) não precisa de sincronização.
+final class HttpLoadDriver {
+  private final HttpClient client = HttpClient.newBuilder()
+    .version(HttpClient.Version.HTTP_1_1)
+    .connectTimeout(Duration.ofSeconds(10))
+    .build();
+  private final URI baseUri;
+  private final int concurrency;
+  private final Duration warmup;
+  private final Duration duration;
+
+  HttpLoadDriver(URI baseUri, int concurrency, Duration warmup, Duration duration) {
+    this.baseUri = baseUri;
+    this.concurrency = concurrency;
+    this.warmup = warmup;
+    this.duration = duration;
+  }
+
+  HttpRequest.Builder request(String path, String username, String password) {
+    String credentials = Base64.getEncoder()
+      .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    return HttpRequest.newBuilder(baseUri.resolve(path))
+      .timeout(Duration.ofSeconds(60))
+      .header("Authorization", "Basic " + credentials);
+  }
+
+  HttpRequest.Builder request(String path, String bearerToken) {
+    return HttpRequest.newBuilder(baseUri.resolve(path))
+      .timeout(Duration.ofSeconds(60))
+      .header("Authorization", "Bearer " + bearerToken);
+  }
+
+  // Uma requisição isolada e fora da medição, para aquecer caches (como o AuthenticationCache) antes da carga.
+  int prime(HttpRequest request) throws IOException, InterruptedException {
+    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+
+  // nextRequest recebe o número do usuário virtual e devolve a próxima requisição dele.
+  LoadReport run(String name, IntFunction<HttpRequest> nextRequest) throws InterruptedException {
+    return runMix(name, user -> new Step(name, nextRequest.apply(user), null)).get(name);
+  }
+
+  // Carga mista: nextStep devolve a próxima requisição do usuário virtual já com o rótulo da operação. O mapa traz
+  // primeiro o total (com a chave name) e depois um relatório por rótulo, em ordem alfabética.
+  Map<String, LoadReport> runMix(String name, IntFunction<Step> nextStep) throws InterruptedException {
+    long start = System.nanoTime();
+    long measureFrom = start + warmup.toNanos();
+    long deadline = measureFrom + duration.toNanos();
+
+    VirtualUser[] users = new VirtualUser[concurrency];
+    CountDownLatch finished = new CountDownLatch(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      users[i] = new VirtualUser(i, nextStep, measureFrom, deadline, finished);
+    }
+    for (VirtualUser user : users) {
+      user.sendNext();
+    }
+
+    if (!finished.await(warmup.plus(duration).toSeconds() + 120, TimeUnit.SECONDS)) {
+      throw new IllegalStateException(name + ": requests still in flight long after the deadline");
+    }
+
+    Map<String, LoadReport> reports = new LinkedHashMap<>();
+    reports.put(name, report(name, users, null));
+    TreeSet<String> labels = new TreeSet<>();
+    for (VirtualUser user : users) {
+      labels.addAll(user.recorders.keySet());
+    }
+    for (String label : labels) {
+      reports.put(label, report(label, users, label));
+    }
+    return reports;
+  }
+
+  // label null: todas as operações juntas.
+  private LoadReport report(String name, VirtualUser[] users, String label) {
+    List<Recorder> recorders = Arrays.stream(users)
+      .flatMap(user -> user.recorders.values().stream())
+      .filter(recorder -> label == null || recorder.label.equals(label))
+      .toList();
+    long[] latencies = recorders.stream()
+      .flatMapToLong(recorder -> Arrays.stream(recorder.latencies, 0, recorder.count))
+      .sorted()
+      .toArray();
+    return new LoadReport(name, latencies, recorders.stream().mapToLong(recorder -> recorder.errors).sum(), duration);
+  }
+
+  // onResponse (opcional) é chamado com cada resposta, inclusive no aquecimento, antes de o usuário seguir.
+  record Step(String label, HttpRequest request, Consumer<HttpResponse<Void>> onResponse) {}
+
+  private final class VirtualUser {
+    private final int index;
+    private final IntFunction<Step> nextStep;
+    private final long measureFrom;
+    private final long deadline;
+    private final CountDownLatch finished;
+    private final Map<String, Recorder> recorders = new HashMap<>();
+
+    VirtualUser(int index, IntFunction<Step> nextStep, long measureFrom, long deadline, CountDownLatch finished) {
+      this.index = index;
+      this.nextStep = nextStep;
+      this.measureFrom = measureFrom;
+      this.deadline = deadline;
+      this.finished = finished;
+    }
+
+    void sendNext() {
+      long sentAt = System.nanoTime();
+      if (sentAt >= deadline) {
+        finished.countDown();
+        return;
+      }
+      Step step = nextStep.apply(index);
+      client.sendAsync(step.request(), HttpResponse.BodyHandlers.discarding())
+        .whenComplete((response, failure) -> {
+          if (sentAt >= measureFrom) {
+            recorders.computeIfAbsent(step.label(), Recorder::new)
+              .record(System.nanoTime() - sentAt, failure != null || response.statusCode() >= 400);
+          }
+          if (failure == null && step.onResponse() != null) {
+            step.onResponse().accept(response);
+          }
+          sendNext();
+        });
+    }
+  }
+
+  private static final class Recorder {
+    private final String label;
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    Recorder(String label) {
+      this.label = label;
+    }
+
+    void record(long latencyNanos, boolean failed) {
+      if (failed) {
+        errors++;
+      }
+      if (count == latencies.length) {
+        latencies = Arrays.copyOf(latencies, count * 2);
+      }
+      latencies[count++] = latencyNanos;
+    }
+  }
+
+  record LoadReport(String name, long[] sortedLatenciesNanos, long errors, Duration duration) {
+
+    long requests() {
+      return sortedLatenciesNanos.length;
+    }
+
+    double throughput() {
+      return requests() / (duration.toNanos() / 1e9);
+    }
+
+    double errorRate() {
+      return requests() == 0 ? 0 : (double) errors / requests();
+    }
+
+    Duration percentile(double percentile) {
+      if (sortedLatenciesNanos.length == 0) {
+        return Duration.ZERO;
+      }
+      int index = (int) Math.ceil(percentile / 100.0 * sortedLatenciesNanos.length) - 1;
+      return Duration.ofNanos(sortedLatenciesNanos[Math.max(0, index)]);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%-28s %9d req %10.1f req/s  p50 %7.1f ms  p99 %7.1f ms  p99.9 %7.1f ms  errors %.3f%%",
+        name, requests(), throughput(),
+        millis(percentile(50)), millis(percentile(99)), millis(percentile(99.9)),
+        errorRate() * 100);
+    }
+
+    private static double millis(Duration duration) {
+      return duration.toNanos() / 1e6;
+    }
+  }
+}
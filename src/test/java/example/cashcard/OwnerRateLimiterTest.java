@@ -0,0 +1,54 @@
+package example.cashcard;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import example.cashcard.OwnerRateLimiter.Kind;
+import example.cashcard.OwnerRateLimiter.Limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OwnerRateLimiterTest {
+  private final AtomicLong clock = new AtomicLong(42);
+  private final OwnerRateLimiter limiter = new OwnerRateLimiter(
+    new Limit(10, 5), new Limit(2, 2), 100, Duration.ofMinutes(1), clock::get);
+
+  @Test
+  void shouldAllowTheBurstAndThenOneRequestPerInterval() {
+    for (int i = 0; i < 5; i++) {
+      assertThat(limiter.tryAcquire("sarah1", Kind.READ)).isZero();
+    }
+    long wait = limiter.tryAcquire("sarah1", Kind.READ);
+    assertThat(wait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+    clock.addAndGet(wait);
+    assertThat(limiter.tryAcquire("sarah1", Kind.READ)).isZero();
+    assertThat(limiter.tryAcquire("sarah1", Kind.READ)).isPositive();
+  }
+
+  @Test
+  void shouldRefillTheWholeBurstAfterAnIdlePeriod() {
+    for (int i = 0; i < 5; i++) {
+      limiter.tryAcquire("sarah1", Kind.READ);
+    }
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(limiter.tryAcquire("sarah1", Kind.READ)).isZero();
+    }
+    assertThat(limiter.tryAcquire("sarah1", Kind.READ)).isPositive();
+  }
+
+  @Test
+  void shouldKeepReadsWritesAndOwnersApart() {
+    assertThat(limiter.tryAcquire("sarah1", Kind.WRITE)).isZero();
+    assertThat(limiter.tryAcquire("sarah1", Kind.WRITE)).isZero();
+    assertThat(limiter.tryAcquire("sarah1", Kind.WRITE)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+
+    assertThat(limiter.tryAcquire("sarah1", Kind.READ)).isZero();
+    assertThat(limiter.tryAcquire("kumar2", Kind.WRITE)).isZero();
+  }
+}
@@ -0,0 +1,63 @@
+package example.cashcard;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class OwnerShardsTest {
+
+  @Test
+  void shouldKeepServingOwnersWhileTheRebalancePlanIsComputed() {
+    OwnerShards ownerShards = new OwnerShards(List.of(mock(DataSource.class)));
+    ownerShards.add(mock(DataSource.class));
+    String owner = ownerMovedTo(1);
+
+    Map<String, Integer> plan = ownerShards.beginRebalance(shard -> {
+      //-- Uma requisição no meio da listagem não espera por ela (antes, esperava todas as varreduras).
+      CompletableFuture.runAsync(() -> {
+        try (OwnerShards.Binding binding = ownerShards.bindOwner(owner)) {
+          assertThat(ownerShards.shardFor(owner)).isZero();
+        }
+      }).orTimeout(5, TimeUnit.SECONDS).join();
+      return List.of();
+    });
+
+    assertThat(plan).containsOnly(Map.entry(owner, 0));
+    assertThat(ownerShards.shardFor(owner)).isZero();
+  }
+
+  @Test
+  void shouldOnlyPlanOwnersThatTheNewRingMoves() {
+    OwnerShards ownerShards = new OwnerShards(List.of(mock(DataSource.class)));
+    ownerShards.add(mock(DataSource.class));
+    String staying = ownerMovedTo(0);
+    String moving = ownerMovedTo(1);
+
+    Map<String, Integer> plan = ownerShards.beginRebalance(shard -> shard == 0 ? List.of(staying, moving) : List.of());
+
+    assertThat(plan).containsOnly(Map.entry(moving, 0));
+    assertThat(ownerShards.shardFor(staying)).isZero();
+    assertThat(ownerShards.shardFor(moving)).isZero();
+
+    ownerShards.moveOwner(moving, (owner, from, to) -> assertThat(to).isEqualTo(1));
+    assertThat(ownerShards.shardFor(moving)).isEqualTo(1);
+  }
+
+  private static String ownerMovedTo(int shard) {
+    ConsistentHashRing ring = new ConsistentHashRing(2);
+    return IntStream.range(0, 1000)
+      .mapToObj(i -> "owner" + i)
+      .filter(owner -> ring.shardFor(owner) == shard)
+      .findFirst()
+      .orElseThrow();
+  }
+}
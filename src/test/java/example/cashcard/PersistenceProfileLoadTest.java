@@ -0,0 +1,151 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Vazão dos métodos do CashCardRepository (sem o CashCardCache e sem HTTP) em cada perfil de persistência:
+// H2 em memória (padrão), H2 em arquivo (h2-file) e H2 por TCP (h2-server), com a mesma massa de dados.
+// Roda só com -Pload-test:
+//   ./mvnw test -Pload-test -Dtest=PersistenceProfileLoadTest
+// Parâmetros: -Dload.concurrency, -Dload.seconds e -Dload.rows.
+@Tag("load")
+class PersistenceProfileLoadTest {
+  private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+  private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 5));
+  private static final Duration WARMUP = Duration.ofSeconds(2);
+  private static final int ROWS = Integer.getInteger("load.rows", 100_000);
+  private static final int CARDS_PER_OWNER = 100;
+  private static final long FIRST_ID = 1000;
+
+  @TempDir
+  Path dataDirectory;
+
+  @Test
+  void shouldCompareRepositoryThroughputAcrossPersistenceProfiles() throws Exception {
+    runAgainst("default");
+    runAgainst("h2-file", "cashcard.h2.file=" + dataDirectory.resolve("cashcard"));
+    runAgainst("h2-server", "cashcard.h2.tcp-server.port=" + freePort());
+  }
+
+  private void runAgainst(String profile, String... properties) throws InterruptedException {
+    try (ConfigurableApplicationContext app = new SpringApplicationBuilder(CashcardApplication.class)
+        .web(WebApplicationType.NONE)
+        .profiles(profile)
+        .properties(properties)
+        .run()) {
+      seed(app.getBean(JdbcTemplate.class));
+      CashCardRepository repository = app.getBean(CashCardRepository.class);
+      int owners = ROWS / CARDS_PER_OWNER;
+
+      Map<String, Consumer<ThreadLocalRandom>> operations = new LinkedHashMap<>();
+      operations.put("findByIdAndOwner", random -> {
+        long x = random.nextLong(ROWS);
+        assertThat(repository.findByIdAndOwner(x + FIRST_ID, owner(x, owners))).isNotNull();
+      });
+      operations.put("existsByIdAndOwner", random -> {
+        long x = random.nextLong(ROWS);
+        assertThat(repository.existsByIdAndOwner(x + FIRST_ID, owner(x, owners))).isTrue();
+      });
+      operations.put("findPageByOwner", random -> repository.findPageByOwner(
+        owner(random.nextLong(owners), owners), PageRequest.of(random.nextInt(5), 20, Sort.by("amount"))));
+      operations.put("findSliceByOwnerAfter", random -> repository.findSliceByOwnerAfter(
+        owner(random.nextLong(owners), owners), random.nextLong(100_000), 0L, 20));
+      operations.put("updateAmountByIdAndOwner", random -> {
+        long x = random.nextLong(ROWS);
+        repository.updateAmountByIdAndOwner(x + FIRST_ID, owner(x, owners), random.nextLong(100_000));
+      });
+
+      for (Map.Entry<String, Consumer<ThreadLocalRandom>> operation : operations.entrySet()) {
+        HttpLoadDriver.LoadReport report = run(profile + " " + operation.getKey(), operation.getValue());
+        System.out.println(report);
+        assertThat(report.errors()).isZero();
+      }
+    }
+  }
+
+  private static void seed(JdbcTemplate jdbcTemplate) {
+    jdbcTemplate.update("""
+        INSERT INTO cash_card(ID, AMOUNT, OWNER)
+        SELECT X + ?, MOD(X * 7919, 100000), 'owner' || MOD(X, ?) FROM SYSTEM_RANGE(0, ?)
+        """, FIRST_ID, ROWS / CARDS_PER_OWNER, ROWS - 1);
+    jdbcTemplate.execute("ANALYZE");
+  }
+
+  // Carga em malha fechada: CONCURRENCY threads, cada uma chamando a operação de novo assim que a anterior termina.
+  private static HttpLoadDriver.LoadReport run(String name, Consumer<ThreadLocalRandom> operation) throws InterruptedException {
+    long measureFrom = System.nanoTime() + WARMUP.toNanos();
+    long deadline = measureFrom + DURATION.toNanos();
+    LongAdder errors = new LongAdder();
+    long[][] latencies = new long[CONCURRENCY][];
+    CountDownLatch finished = new CountDownLatch(CONCURRENCY);
+
+    for (int i = 0; i < CONCURRENCY; i++) {
+      int worker = i;
+      new Thread(() -> {
+        long[] own = new long[1024];
+        int count = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long startedAt;
+        while ((startedAt = System.nanoTime()) < deadline) {
+          boolean failed = false;
+          try {
+            operation.accept(random);
+          } catch (RuntimeException | AssertionError e) {
+            failed = true;
+          }
+          if (startedAt >= measureFrom) {
+            if (failed) {
+              errors.increment();
+            }
+            if (count == own.length) {
+              own = Arrays.copyOf(own, count * 2);
+            }
+            own[count++] = System.nanoTime() - startedAt;
+          }
+        }
+        latencies[worker] = Arrays.copyOf(own, count);
+        finished.countDown();
+      }, name + "-" + worker).start();
+    }
+
+    if (!finished.await(WARMUP.plus(DURATION).toSeconds() + 120, TimeUnit.SECONDS)) {
+      throw new IllegalStateException(name + ": calls still running long after the deadline");
+    }
+    long[] sorted = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+    return new HttpLoadDriver.LoadReport(name, sorted, errors.sum(), DURATION);
+  }
+
+  private static String owner(long x, int owners) {
+    return "owner" + (x % owners);
+  }
+
+  private static int freePort() {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
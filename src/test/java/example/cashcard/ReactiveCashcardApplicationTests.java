@@ -0,0 +1,8 @@
+package example.cashcard;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Roda todos os cenários do CashcardApplicationTests contra a pilha reativa (WebFlux + R2DBC).
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.main.web-application-type=reactive")
+class ReactiveCashcardApplicationTests extends CashcardApplicationTests {
+}
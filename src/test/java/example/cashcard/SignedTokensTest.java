@@ -0,0 +1,66 @@
+package example.cashcard;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignedTokensTest {
+  private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+  private final byte[] secret = new byte[32];
+  private final SignedTokens signedTokens = tokens(secret, NOW);
+
+  @Test
+  void shouldCarryTheOwnerAndAuthoritiesOfTheIssuedToken() {
+    String token = signedTokens.issue("sarah1", AuthorityUtils.createAuthorityList("ROLE_CARD-OWNER"));
+
+    Authentication authentication = signedTokens.verify(token);
+
+    assertThat(authentication.isAuthenticated()).isTrue();
+    assertThat(authentication.getName()).isEqualTo("sarah1");
+    assertThat(AuthorityUtils.authorityListToSet(authentication.getAuthorities())).containsExactly("ROLE_CARD-OWNER");
+  }
+
+  @Test
+  void shouldRejectTamperedTokens() {
+    String token = signedTokens.issue("sarah1", AuthorityUtils.createAuthorityList("ROLE_CARD-OWNER"));
+    String forged = signedTokens.issue("kumar2", AuthorityUtils.createAuthorityList("ROLE_CARD-OWNER"));
+    String forgedPayload = forged.substring(0, forged.indexOf('.'));
+    String signature = token.substring(token.indexOf('.'));
+
+    assertThat(signedTokens.verify(forgedPayload + signature)).isNull();
+    assertThat(signedTokens.verify(token.substring(0, token.length() - 1) + "A")).isNull();
+    //-- Mesmo byte baixo do caractere original: só passaria se os caracteres fossem truncados para byte.
+    assertThat(signedTokens.verify((char) (token.charAt(0) + 0x100) + token.substring(1))).isNull();
+    assertThat(signedTokens.verify("not-a-token")).isNull();
+  }
+
+  @Test
+  void shouldRejectTokensSignedWithAnotherKey() {
+    byte[] otherSecret = new byte[32];
+    Arrays.fill(otherSecret, (byte) 1);
+    String token = tokens(otherSecret, NOW).issue("sarah1", AuthorityUtils.createAuthorityList("ROLE_CARD-OWNER"));
+
+    assertThat(signedTokens.verify(token)).isNull();
+  }
+
+  @Test
+  void shouldRejectExpiredTokens() {
+    String token = signedTokens.issue("sarah1", AuthorityUtils.createAuthorityList("ROLE_CARD-OWNER"));
+
+    assertThat(tokens(secret, NOW.plus(Duration.ofMinutes(14))).verify(token)).isNotNull();
+    assertThat(tokens(secret, NOW.plus(Duration.ofMinutes(15))).verify(token)).isNull();
+  }
+
+  private static SignedTokens tokens(byte[] secret, Instant now) {
+    return new SignedTokens(secret, Duration.ofMinutes(15), Clock.fixed(now, ZoneOffset.UTC));
+  }
+}
@@ -0,0 +1,139 @@
+package example.cashcard;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Tempo até o /actuator/health responder e memória residente (RSS) logo depois, em cada forma de subir a aplicação:
+//   jar             o fat jar de sempre
+//   extracted       o mesmo jar extraído (jarmode=tools extract), sem o carregador de jars aninhados
+//   extracted+aot   mais as definições de bean geradas pelo process-aot
+//   aot+cds         mais o arquivo CDS gravado pelo treino do perfil aot-cds
+//   native          o executável do perfil native
+// Mede o que já foi construído; modos sem artefato são pulados:
+//   ./mvnw -Paot-cds package -DskipTests && ./mvnw -Pnative native:compile -DskipTests
+//   ./mvnw test -Pload-test -Dtest=StartupModeLoadTest
+// Parâmetro: -Dload.runs (subidas por modo; o relatório usa a mediana). O RSS vem de /proc, então só no Linux.
+@Tag("load")
+class StartupModeLoadTest {
+  private static final int RUNS = Integer.getInteger("load.runs", 5);
+  private static final Path TARGET = Path.of("target");
+  private static final Path JAR = TARGET.resolve("cashcard-0.0.1-SNAPSHOT.jar");
+  private static final Path EXTRACTED_JAR = TARGET.resolve("cds/cashcard-0.0.1-SNAPSHOT.jar");
+  private static final Path CDS_ARCHIVE = TARGET.resolve("cds/application.jsa");
+  private static final Path NATIVE = TARGET.resolve("cashcard");
+  private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+  private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+  @Test
+  void shouldCompareStartupTimeAndMemoryAcrossModes() throws Exception {
+    System.out.printf("%-16s %12s %12s%n", "mode", "startup ms", "rss MB");
+    report("jar", JAR, java("-jar", JAR.toString()));
+    report("extracted", EXTRACTED_JAR, java("-jar", EXTRACTED_JAR.toString()));
+    report("extracted+aot", EXTRACTED_JAR, java("-Dspring.aot.enabled=true", "-jar", EXTRACTED_JAR.toString()));
+    report("aot+cds", CDS_ARCHIVE, java("-XX:SharedArchiveFile=" + CDS_ARCHIVE, "-Dspring.aot.enabled=true",
+      "-jar", EXTRACTED_JAR.toString()));
+    report("native", NATIVE, List.of(NATIVE.toString()));
+  }
+
+  private void report(String mode, Path artifact, List<String> command) throws Exception {
+    if (!Files.exists(artifact)) {
+      System.out.printf("%-16s skipped: %s not built%n", mode, artifact);
+      return;
+    }
+    long[] startupMillis = new long[RUNS];
+    long[] rssKilobytes = new long[RUNS];
+    for (int run = 0; run < RUNS; run++) {
+      long[] measured = start(command);
+      startupMillis[run] = measured[0];
+      rssKilobytes[run] = measured[1];
+    }
+    System.out.printf("%-16s %12d %12.1f%n", mode, median(startupMillis), median(rssKilobytes) / 1024.0);
+  }
+
+  // { milissegundos até o health responder 200, RSS em KB (-1 fora do Linux) }
+  private long[] start(List<String> command) throws Exception {
+    int port = freePort();
+    List<String> withPort = new ArrayList<>(command);
+    withPort.add("--server.port=" + port);
+    //-- Cada subida grava o log de mutações no seu próprio diretório temporário.
+    withPort.add("--cashcard.audit.directory=" + Files.createTempDirectory("cashcard-startup"));
+    HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+
+    long startedAt = System.nanoTime();
+    Process process = new ProcessBuilder(withPort).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+    try {
+      while (true) {
+        if (!process.isAlive()) {
+          throw new IllegalStateException(command.get(0) + " exited with " + process.exitValue());
+        }
+        assertThat(System.nanoTime() - startedAt).isLessThan(TIMEOUT.toNanos());
+        try {
+          if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+            break;
+          }
+        } catch (IOException notListeningYet) {
+          // ainda subindo
+        }
+        Thread.sleep(5);
+      }
+      long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+      return new long[] { startupMillis, rssKilobytes(process.pid()) };
+    } finally {
+      process.destroy();
+      if (!process.waitFor(10, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  private static long rssKilobytes(long pid) throws IOException {
+    Path status = Path.of("/proc", String.valueOf(pid), "status");
+    if (!Files.exists(status)) {
+      return -1;
+    }
+    for (String line : Files.readAllLines(status)) {
+      if (line.startsWith("VmRSS:")) {
+        return Long.parseLong(line.replaceAll("\\D", ""));
+      }
+    }
+    return -1;
+  }
+
+  private static List<String> java(String... arguments) {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(Arrays.asList(arguments));
+    return command;
+  }
+
+  private static long median(long[] values) {
+    long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+
+  private static int freePort() {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}